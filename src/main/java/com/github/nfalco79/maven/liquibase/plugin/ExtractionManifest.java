@@ -0,0 +1,298 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent state of the scripts extracted from dependencies in an output
+ * folder.
+ * <p>
+ * For each jar the manifest keeps its size, timestamp and matching entries,
+ * so an unchanged jar is not opened again. For each extracted script it keeps
+ * the CRC and size of the source entry and the timestamp of the extracted
+ * file, so a script is copied only if its content or the extracted file
+ * changed.
+ *
+ * @author Nikolas Falco
+ */
+public class ExtractionManifest {
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * A script contained in an artifact.
+     */
+    public static class Script {
+        private final String path;
+        private final long checksum;
+        private final long size;
+
+        /**
+         * Default constructor.
+         *
+         * @param path
+         *            the script path relative to the artifact root
+         * @param checksum
+         *            the CRC of the jar entry or the timestamp of the file
+         *            for folder artifacts
+         * @param size
+         *            the uncompressed size of the script
+         */
+        public Script(String path, long checksum, long size) {
+            this.path = path;
+            this.checksum = checksum;
+            this.size = size;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public long getChecksum() {
+            return checksum;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+
+    private static class Source {
+        private final long length;
+        private final long lastModified;
+        private final List<Script> scripts;
+
+        private Source(long length, long lastModified, List<Script> scripts) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.scripts = scripts;
+        }
+    }
+
+    private static class Output {
+        private final long checksum;
+        private final long size;
+        private final long lastModified;
+
+        private Output(long checksum, long size, long lastModified) {
+            this.checksum = checksum;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private final File file;
+    private final String salt;
+    private final Map<String, Source> sources = new ConcurrentHashMap<>();
+    private final Map<String, Output> outputs = new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor.
+     *
+     * @param file
+     *            where the manifest is persisted
+     * @param salt
+     *            identifies the include and exclude patterns, a manifest
+     *            stored with a different salt is discarded
+     */
+    public ExtractionManifest(File file, String salt) {
+        this.file = file;
+        this.salt = salt;
+    }
+
+    /**
+     * Loads the manifest from the file. A missing or unreadable file results
+     * in an empty manifest.
+     */
+    public void load() {
+        sources.clear();
+        outputs.clear();
+        if (!file.isFile()) {
+            return;
+        }
+
+        try (DataInputStream is = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (is.readInt() != FORMAT_VERSION || !salt.equals(is.readUTF())) {
+                return;
+            }
+            int size = is.readInt();
+            for (int i = 0; i < size; i++) {
+                String artifactFile = is.readUTF();
+                long length = is.readLong();
+                long lastModified = is.readLong();
+                int scriptsSize = is.readInt();
+                List<Script> scripts = new ArrayList<>(scriptsSize);
+                for (int j = 0; j < scriptsSize; j++) {
+                    scripts.add(new Script(is.readUTF(), is.readLong(), is.readLong()));
+                }
+                sources.put(artifactFile, new Source(length, lastModified, scripts));
+            }
+            size = is.readInt();
+            for (int i = 0; i < size; i++) {
+                outputs.put(is.readUTF(), new Output(is.readLong(), is.readLong(), is.readLong()));
+            }
+        } catch (IOException e) {
+            // corrupted manifest, all scripts will be extracted again
+            sources.clear();
+            outputs.clear();
+        }
+    }
+
+    /**
+     * Stores the manifest to the file.
+     *
+     * @throws IOException
+     *             in case of failure writing the file
+     */
+    public void store() throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(parent.toPath());
+        File tmpFile = File.createTempFile(file.getName(), ".tmp", parent);
+        try {
+            try (DataOutputStream os = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile.toPath())))) {
+                os.writeInt(FORMAT_VERSION);
+                os.writeUTF(salt);
+                os.writeInt(sources.size());
+                for (Map.Entry<String, Source> entry : sources.entrySet()) {
+                    Source source = entry.getValue();
+                    os.writeUTF(entry.getKey());
+                    os.writeLong(source.length);
+                    os.writeLong(source.lastModified);
+                    os.writeInt(source.scripts.size());
+                    for (Script script : source.scripts) {
+                        os.writeUTF(script.path);
+                        os.writeLong(script.checksum);
+                        os.writeLong(script.size);
+                    }
+                }
+                os.writeInt(outputs.size());
+                for (Map.Entry<String, Output> entry : outputs.entrySet()) {
+                    Output output = entry.getValue();
+                    os.writeUTF(entry.getKey());
+                    os.writeLong(output.checksum);
+                    os.writeLong(output.size);
+                    os.writeLong(output.lastModified);
+                }
+            }
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+    }
+
+    /**
+     * Returns the scripts of a jar scanned by a previous build if the jar
+     * size and timestamp did not change.
+     *
+     * @param artifactFile
+     *            the jar file
+     * @return the scripts of the jar, {@code null} if the jar has not been
+     *         scanned or has been changed
+     */
+    public List<Script> getScripts(File artifactFile) {
+        Source source = sources.get(artifactFile.getAbsolutePath());
+        if (source == null || source.length != artifactFile.length() || source.lastModified != artifactFile.lastModified()) {
+            return null; // NOSONAR
+        }
+        return Collections.unmodifiableList(source.scripts);
+    }
+
+    /**
+     * Records the scripts found scanning the given jar.
+     *
+     * @param artifactFile
+     *            the jar file
+     * @param scripts
+     *            the matching entries of the jar
+     */
+    public void putScripts(File artifactFile, List<Script> scripts) {
+        sources.put(artifactFile.getAbsolutePath(), new Source(artifactFile.length(), artifactFile.lastModified(), scripts));
+    }
+
+    /**
+     * Returns if the given script has already been extracted to the target
+     * file and the target file has not been changed since.
+     *
+     * @param script
+     *            the script to extract
+     * @param target
+     *            the extracted file
+     * @return {@code true} if the extraction can be skipped
+     */
+    public boolean isUpToDate(Script script, File target) {
+        Output output = outputs.get(script.path);
+        return output != null && output.checksum == script.checksum && output.size == script.size //
+                && target.length() == output.size && target.lastModified() == output.lastModified;
+    }
+
+    /**
+     * Records that the given script has been extracted to the target file.
+     *
+     * @param script
+     *            the extracted script
+     * @param target
+     *            the extracted file
+     */
+    public void extracted(Script script, File target) {
+        outputs.put(script.path, new Output(script.checksum, script.size, target.lastModified()));
+    }
+
+    /**
+     * Removes the jars and the scripts that are not part of the current
+     * extraction, deleting the extracted files of the latter.
+     *
+     * @param artifactFiles
+     *            the artifact files of the current extraction
+     * @param scripts
+     *            the script paths of the current extraction
+     * @param outputDirectory
+     *            the folder where scripts are extracted
+     * @return the deleted script paths
+     * @throws IOException
+     *             in case of failure deleting a stale file
+     */
+    public Collection<String> retain(Collection<File> artifactFiles, Collection<String> scripts, File outputDirectory) throws IOException {
+        Set<String> paths = new HashSet<>();
+        for (File artifactFile : artifactFiles) {
+            paths.add(artifactFile.getAbsolutePath());
+        }
+        sources.keySet().retainAll(paths);
+
+        List<String> stales = new ArrayList<>(outputs.keySet());
+        stales.removeAll(new HashSet<>(scripts));
+        for (String stale : stales) {
+            outputs.remove(stale);
+            Files.deleteIfExists(new File(outputDirectory, stale).toPath()); // NOSONAR
+        }
+        return stales;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.codehaus.plexus.util.cli.CommandLineException;
+import org.codehaus.plexus.util.cli.CommandLineUtils;
+import org.codehaus.plexus.util.cli.CommandLineUtils.StringStreamConsumer;
+import org.codehaus.plexus.util.cli.Commandline;
+
+/**
+ * Finds files changed in the local git repository, no remote is contacted.
+ *
+ * @author Nikolas Falco
+ */
+public final class GitChanges {
+
+    private GitChanges() {
+    }
+
+    /**
+     * Returns the files of the given directory added or modified since the
+     * given reference. Changes are computed from the common ancestor of the
+     * reference and {@code HEAD} to the working tree, untracked files are
+     * considered added.
+     *
+     * @param directory
+     *            a folder in a git working tree
+     * @param ref
+     *            a branch, a tag or a commit
+     * @return the changed file paths relative to the directory, with
+     *         {@code /} as separator
+     * @throws IOException
+     *             if git could not be run or fails
+     */
+    public static Set<String> getChangedFiles(File directory, String ref) throws IOException {
+        String base = git(directory, "merge-base", ref, "HEAD").trim();
+
+        Set<String> files = new LinkedHashSet<>();
+        files.addAll(lines(git(directory, "diff", "--name-only", "--relative", "--diff-filter=ACMR", base, "--", ".")));
+        files.addAll(lines(git(directory, "ls-files", "--others", "--exclude-standard", "--", ".")));
+        return files;
+    }
+
+    private static Set<String> lines(String output) {
+        Set<String> lines = new LinkedHashSet<>(Arrays.asList(output.split("\\r?\\n")));
+        lines.remove("");
+        return lines;
+    }
+
+    private static String git(File directory, String... args) throws IOException {
+        Commandline cl = new Commandline();
+        cl.setExecutable("git");
+        cl.setWorkingDirectory(directory);
+        // paths with special characters are not quoted
+        cl.addArguments(new String[] { "-c", "core.quotepath=off" });
+        cl.addArguments(args);
+
+        StringStreamConsumer out = new StringStreamConsumer();
+        StringStreamConsumer err = new StringStreamConsumer();
+        try {
+            int exitCode = CommandLineUtils.executeCommandLine(cl, out, err);
+            if (exitCode != 0) {
+                throw new IOException("git " + String.join(" ", args) + " failed with exit code " + exitCode + ": " + err.getOutput().trim());
+            }
+        } catch (CommandLineException e) {
+            throw new IOException("Could not run git", e);
+        }
+        return out.getOutput();
+    }
+
+}
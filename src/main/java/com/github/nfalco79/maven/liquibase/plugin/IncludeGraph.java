@@ -0,0 +1,387 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.codehaus.plexus.util.FileUtils;
+
+import liquibase.resource.Resource;
+import liquibase.resource.ResourceAccessor;
+
+/**
+ * Graph of include relations between the changelogs of a source folder.
+ * <p>
+ * The graph is built reading only the {@code include} and {@code includeAll}
+ * elements of XML changelogs, without a complete Liquibase parse. Other
+ * changelog formats are considered to not include anything.
+ * <p>
+ * The graph could be stored and given to the next build, so that only
+ * changelogs modified in the meantime are read again.
+ *
+ * @author Nikolas Falco
+ */
+public class IncludeGraph {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final Set<String> CHANGELOG_EXTENSIONS = new HashSet<>(Arrays.asList("xml", "yml", "yaml", "json", "sql"));
+
+    /*
+     * Include information of a changelog file.
+     */
+    private static class Node {
+        private final long size;
+        private final long lastModified;
+        // the includes depends on folder content (includeAll)
+        private final boolean dynamic;
+        private final Set<String> includes;
+
+        private Node(long size, long lastModified, boolean dynamic, Set<String> includes) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.dynamic = dynamic;
+            this.includes = includes;
+        }
+
+        private boolean isUpToDate(File file) {
+            return !dynamic && file.length() == size && file.lastModified() == lastModified;
+        }
+    }
+
+    private final File source;
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+
+    private IncludeGraph(File source) {
+        this.source = source.getAbsoluteFile().toPath().normalize().toFile();
+    }
+
+    /**
+     * Builds the include graph of the given changelogs.
+     *
+     * @param source
+     *            the folder that contains the changelogs
+     * @param changeLogs
+     *            the changelog paths relative to source
+     * @param resourceAccessor
+     *            used to resolve included files
+     * @return the include graph
+     * @throws IOException
+     *             in case of failure reading a changelog
+     */
+    public static IncludeGraph build(File source, String[] changeLogs, ResourceAccessor resourceAccessor) throws IOException {
+        return build(source, changeLogs, resourceAccessor, null);
+    }
+
+    /**
+     * Builds the include graph of the given changelogs reusing the include
+     * information of changelogs not modified since the previous graph was
+     * built.
+     *
+     * @param source
+     *            the folder that contains the changelogs
+     * @param changeLogs
+     *            the changelog paths relative to source
+     * @param resourceAccessor
+     *            used to resolve included files
+     * @param previous
+     *            the graph of a previous build, could be {@code null}
+     * @return the include graph
+     * @throws IOException
+     *             in case of failure reading a changelog
+     */
+    public static IncludeGraph build(File source, String[] changeLogs, ResourceAccessor resourceAccessor, IncludeGraph previous) throws IOException {
+        IncludeGraph graph = new IncludeGraph(source);
+        for (String changeLog : changeLogs) {
+            File changeLogFile = new File(graph.source, changeLog); // NOSONAR
+            Node node = previous != null ? previous.nodes.get(changeLog) : null;
+            if (node == null || !node.isUpToDate(changeLogFile)) {
+                node = graph.readNode(changeLogFile, resourceAccessor);
+            }
+            graph.nodes.put(changeLog, node);
+        }
+        return graph;
+    }
+
+    /**
+     * Loads a graph stored by {@link #store(File)}. A missing or unreadable
+     * file results in an empty graph.
+     *
+     * @param source
+     *            the folder that contains the changelogs
+     * @param file
+     *            where the graph has been stored
+     * @return the stored graph
+     */
+    public static IncludeGraph load(File source, File file) {
+        IncludeGraph graph = new IncludeGraph(source);
+        if (!file.isFile()) {
+            return graph;
+        }
+
+        try (DataInputStream is = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (is.readInt() != FORMAT_VERSION || !graph.source.getPath().equals(is.readUTF())) {
+                return graph;
+            }
+            int size = is.readInt();
+            for (int i = 0; i < size; i++) {
+                String changeLog = is.readUTF();
+                long length = is.readLong();
+                long lastModified = is.readLong();
+                boolean dynamic = is.readBoolean();
+                int includesSize = is.readInt();
+                Set<String> includes = new LinkedHashSet<>();
+                for (int j = 0; j < includesSize; j++) {
+                    includes.add(is.readUTF());
+                }
+                graph.nodes.put(changeLog, new Node(length, lastModified, dynamic, includes));
+            }
+        } catch (IOException e) {
+            // corrupted graph, all changelogs will be read again
+            graph.nodes.clear();
+        }
+        return graph;
+    }
+
+    /**
+     * Stores this graph to the given file.
+     *
+     * @param file
+     *            where store the graph
+     * @throws IOException
+     *             in case of failure writing the file
+     */
+    public void store(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(parent.toPath());
+        File tmpFile = File.createTempFile(file.getName(), ".tmp", parent);
+        try {
+            try (DataOutputStream os = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile.toPath())))) {
+                os.writeInt(FORMAT_VERSION);
+                os.writeUTF(source.getPath());
+                os.writeInt(nodes.size());
+                for (Map.Entry<String, Node> entry : nodes.entrySet()) {
+                    Node node = entry.getValue();
+                    os.writeUTF(entry.getKey());
+                    os.writeLong(node.size);
+                    os.writeLong(node.lastModified);
+                    os.writeBoolean(node.dynamic);
+                    os.writeInt(node.includes.size());
+                    for (String include : node.includes) {
+                        os.writeUTF(include);
+                    }
+                }
+            }
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+    }
+
+    /**
+     * Returns the changelogs directly included by the given changelog.
+     *
+     * @param changeLog
+     *            the changelog path relative to source
+     * @return the included changelog paths relative to source
+     */
+    public Set<String> getIncludes(String changeLog) {
+        Node node = nodes.get(changeLog);
+        return node != null ? Collections.unmodifiableSet(node.includes) : Collections.emptySet();
+    }
+
+    /**
+     * Returns the changelogs directly or indirectly included by the given
+     * changelog.
+     *
+     * @param changeLog
+     *            the changelog path relative to source
+     * @return the included changelog paths relative to source
+     */
+    public Set<String> getAllIncludes(String changeLog) {
+        Set<String> result = new LinkedHashSet<>();
+        Deque<String> queue = new ArrayDeque<>(getIncludes(changeLog));
+        while (!queue.isEmpty()) {
+            String include = queue.poll();
+            if (result.add(include)) {
+                queue.addAll(getIncludes(include));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns if the content of the given changelog depends on the content of
+     * a folder, because it or any changelog it includes uses includeAll or
+     * could not be read.
+     *
+     * @param changeLog
+     *            the changelog path relative to source
+     * @return {@code true} if files could be added to the changelog without
+     *         changing any of its files, {@code false} otherwise
+     */
+    public boolean isDynamic(String changeLog) {
+        Set<String> changeLogs = getAllIncludes(changeLog);
+        changeLogs.add(changeLog);
+        return changeLogs.stream() //
+                .map(nodes::get) //
+                .anyMatch(node -> node != null && node.dynamic);
+    }
+
+    /**
+     * Returns the changelogs to parse so that each changelog is parsed once.
+     * <p>
+     * These are the changelogs that are not included by other changelogs, in
+     * the order they have been given. Changelogs in an include cycle are
+     * returned too so that none is lost.
+     *
+     * @return the changelog paths relative to source
+     */
+    public List<String> getRoots() {
+        List<String> roots = new ArrayList<>();
+        visitRoots((changeLog, visited) -> {
+            roots.add(changeLog);
+            visit(changeLog, visited, null);
+        });
+        return roots;
+    }
+
+    /**
+     * Returns all changelogs in the order Liquibase applies them, starting
+     * from changelogs that are not included by others. An included changelog
+     * precedes the changelog that includes it and follows the changelogs
+     * declared before it in the same include sequence.
+     *
+     * @return the changelog paths relative to source
+     */
+    public List<String> getExecutionOrder() {
+        List<String> order = new ArrayList<>();
+        visitRoots((changeLog, visited) -> visit(changeLog, visited, order));
+        return order;
+    }
+
+    private interface RootVisitor {
+        void visit(String changeLog, Set<String> visited);
+    }
+
+    private void visitRoots(RootVisitor visitor) {
+        Set<String> included = new HashSet<>();
+        nodes.values().forEach(node -> included.addAll(node.includes));
+
+        Set<String> visited = new HashSet<>();
+        for (String changeLog : nodes.keySet()) {
+            if (!included.contains(changeLog)) {
+                visitor.visit(changeLog, visited);
+            }
+        }
+        // changelogs in an include cycle
+        for (String changeLog : nodes.keySet()) {
+            if (!visited.contains(changeLog)) {
+                visitor.visit(changeLog, visited);
+            }
+        }
+    }
+
+    private void visit(String changeLog, Set<String> visited, List<String> order) {
+        if (nodes.containsKey(changeLog) && visited.add(changeLog)) {
+            getIncludes(changeLog).forEach(include -> visit(include, visited, order));
+            if (order != null) {
+                order.add(changeLog);
+            }
+        }
+    }
+
+    private Node readNode(File changeLogFile, ResourceAccessor resourceAccessor) throws IOException {
+        long size = changeLogFile.length();
+        long lastModified = changeLogFile.lastModified();
+        Set<String> includes = new LinkedHashSet<>();
+        boolean dynamic = false;
+        if (!"xml".equals(FileUtils.getExtension(changeLogFile.getName())) || !changeLogFile.isFile()) {
+            return new Node(size, lastModified, dynamic, includes);
+        }
+
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        try (InputStream is = Files.newInputStream(changeLogFile.toPath())) {
+            XMLStreamReader reader = factory.createXMLStreamReader(is);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                        String element = reader.getLocalName();
+                        String file = reader.getAttributeValue(null, "file");
+                        String path = reader.getAttributeValue(null, "path");
+                        if ("include".equals(element) && file != null) {
+                            for (Resource resource : resourceAccessor.getAll(toPath(changeLogFile, file, isRelative(reader)))) {
+                                addInclude(includes, resource);
+                            }
+                        } else if ("includeAll".equals(element) && path != null) {
+                            dynamic = true;
+                            for (Resource resource : resourceAccessor.search(toPath(changeLogFile, path, isRelative(reader)), true)) {
+                                addInclude(includes, resource);
+                            }
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            // Liquibase will report the problem when parse it
+            dynamic = true;
+        }
+        return new Node(size, lastModified, dynamic, includes);
+    }
+
+    private boolean isRelative(XMLStreamReader reader) {
+        return Boolean.parseBoolean(reader.getAttributeValue(null, "relativeToChangelogFile"));
+    }
+
+    private String toPath(File changeLogFile, String path, boolean relative) {
+        return relative ? new File(changeLogFile.getParentFile(), path).getPath() : path;
+    }
+
+    private void addInclude(Set<String> result, Resource resource) {
+        File file = new File(resource.getUri());
+        if (CHANGELOG_EXTENSIONS.contains(FileUtils.getExtension(file.getName()))) {
+            result.add(source.toPath().relativize(file.toPath()).toString());
+        }
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin;
+
+import java.text.MessageFormat;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.maven.plugin.logging.Log;
+
+import com.github.nfalco79.maven.liquibase.plugin.validator.ValidationError;
+
+/**
+ * Prints validation issues as soon as they are found.
+ * <p>
+ * Issues are not retained unless a recorder collection is given, so the
+ * memory used does not depend on the number of issues. When the configured
+ * maximum number of issues is reached further issues are discarded and the
+ * validation should stop.
+ *
+ * @author Nikolas Falco
+ */
+public class IssueSink {
+
+    private final Log log;
+    private final boolean error;
+    private final int maxIssues;
+    private final Collection<ValidationError> recorder;
+    // the same path instance is shared by all issues of a file
+    private final Map<String, String> files = new HashMap<>();
+    private String lastFile;
+    private int count;
+
+    /**
+     * Constructs an instance of this class.
+     *
+     * @param log
+     *            where issues are printed
+     * @param error
+     *            if issues are printed as errors or as warnings
+     * @param maxIssues
+     *            the number of issues after that the validation stops, zero
+     *            or a negative value means no limit
+     * @param recorder
+     *            a collection where all accepted issues are added, could be
+     *            {@code null}
+     */
+    public IssueSink(Log log, boolean error, int maxIssues, Collection<ValidationError> recorder) {
+        this.log = log;
+        this.error = error;
+        this.maxIssues = maxIssues;
+        this.recorder = recorder;
+    }
+
+    /**
+     * Prints the given issues until the maximum number of issues is reached.
+     *
+     * @param issues
+     *            to print
+     */
+    public void acceptAll(Collection<ValidationError> issues) {
+        for (ValidationError issue : issues) {
+            accept(issue);
+        }
+    }
+
+    /**
+     * Prints the given issue unless the maximum number of issues is already
+     * reached.
+     *
+     * @param issue
+     *            to print
+     */
+    public void accept(ValidationError issue) {
+        if (isFull()) {
+            return;
+        }
+        count++;
+
+        String file = issue.getFile();
+        if (file != null) {
+            file = files.computeIfAbsent(file, f -> f);
+            issue.setFile(file);
+        }
+        if (count == 1 || !Objects.equals(lastFile, file)) {
+            printViolation("There are violations on changelog " + file);
+            lastFile = file;
+        }
+        printIssue(issue);
+
+        if (recorder != null) {
+            recorder.add(issue);
+        }
+    }
+
+    /**
+     * Returns if the maximum number of issues has been reached.
+     *
+     * @return {@code true} if the validation should stop, {@code false}
+     *         otherwise
+     */
+    public boolean isFull() {
+        return maxIssues > 0 && count >= maxIssues;
+    }
+
+    /**
+     * Returns the number of accepted issues.
+     *
+     * @return the number of printed issues
+     */
+    public int getCount() {
+        return count;
+    }
+
+    private void printIssue(ValidationError issue) {
+        if (issue.getChangeSetId() != null) {
+            if (issue.getElement() != null) {
+                printViolation(MessageFormat.format("ChangeSet {0}, element {1} has a violation: {2}", issue.getChangeSetId(), issue.getElement(), issue.getMessage()));
+            } else {
+                printViolation(MessageFormat.format("ChangeSet {0}, has a violation: {1}", issue.getChangeSetId(), issue.getMessage()));
+            }
+        } else {
+            printViolation(MessageFormat.format("ChangeLog {0} has a violation: {1}", issue.getFile(), issue.getMessage()));
+        }
+    }
+
+    private void printViolation(String message) {
+        if (error) {
+            log.error(message);
+        } else {
+            log.warn(message);
+        }
+    }
+
+}
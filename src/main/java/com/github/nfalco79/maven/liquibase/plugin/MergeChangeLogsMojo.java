@@ -19,22 +19,35 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipException;
 import java.util.zip.ZipFile;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.resolver.filter.AndArtifactFilter;
@@ -64,6 +77,9 @@ import org.apache.maven.shared.utils.xml.Xpp3DomWriter;
 import com.github.nfalco79.maven.artifact.resolver.filter.TypeFiler;
 import com.github.nfalco79.maven.dependency.DependencyResolver;
 import com.github.nfalco79.maven.dependency.graph.BottomUpDependencyVisitor;
+import com.github.nfalco79.maven.liquibase.plugin.ExtractionManifest.Script;
+import com.github.nfalco79.maven.liquibase.plugin.resource.MemoryResourceAccessor;
+import com.github.nfalco79.maven.liquibase.plugin.util.HashUtil;
 
 /**
  * Creates a liquibase master changelog that includes a changelog sequence that
@@ -82,6 +98,10 @@ public class MergeChangeLogsMojo extends AbstractMojo {
      * XSD used in the master changelog to validate the grammar.
      */
     private static final String LIQUIBASE_XSD = "http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-4.15.xsd";
+    /**
+     * File in the output directory that tracks the extracted scripts.
+     */
+    private static final String EXTRACTION_MANIFEST = ".extraction.idx";
 
     /**
      * The directory containing the extracted liquibase file from the classpath.
@@ -128,6 +148,36 @@ public class MergeChangeLogsMojo extends AbstractMojo {
     @Parameter(defaultValue = "false")
     private boolean relativeToChangelogFile = false;
 
+    /**
+     * Number of threads used to extract scripts from dependencies, zero or a
+     * negative value means the number of available processors.
+     */
+    @Parameter(property = "ext.liquibase.threads", defaultValue = "0")
+    private int threads;
+
+    /**
+     * Folder shared across builds where scripts of released artifacts are
+     * extracted once, for example {@code ${user.home}/.m2/ext-liquibase}. If
+     * not set scripts are extracted from each artifact by every build.
+     */
+    @Parameter(property = "ext.liquibase.scriptCacheDirectory")
+    private File scriptCacheDirectory;
+
+    /**
+     * Extract scripts of dependencies in the output directory. If
+     * {@code false} the master changelog includes scripts of dependencies as
+     * classpath resources, that only the updateSQL goal is able to resolve.
+     */
+    @Parameter(property = "ext.liquibase.extract", defaultValue = "true")
+    private boolean extract = true;
+
+    // artifact files of the scripts not extracted, by output directory
+    private final Map<File, List<File>> dependencyClasspaths = new HashMap<>();
+    // classpath resource paths of the scripts not extracted
+    private final Map<File, String> classpathResources = new HashMap<>();
+    // scripts held in memory, by output directory
+    private final Map<File, MemoryResourceAccessor> memoryAccessors = new HashMap<>();
+
     /**
      * Max number of attempts to resolve the dependency tree.
      */
@@ -260,7 +310,10 @@ public class MergeChangeLogsMojo extends AbstractMojo {
         for (File changelog : changelogs) {
             if (masterChangeLogs.matches(changelog.getCanonicalPath(), false)) {
                 Xpp3Dom include = new Xpp3Dom("include");
-                if (relativeToChangelogFile) {
+                String resource = classpathResources.get(changelog);
+                if (resource != null) {
+                    include.setAttribute("file", resource);
+                } else if (relativeToChangelogFile) {
                     include.setAttribute("relativeToChangelogFile", "true");
                     include.setAttribute("file", workDir.relativize(changelog.toPath()).toString().replace('\\', '/'));
                 } else {
@@ -270,6 +323,12 @@ public class MergeChangeLogsMojo extends AbstractMojo {
             }
         }
 
+        if (isInMemory()) {
+            StringWriter writer = new StringWriter();
+            Xpp3DomWriter.write(new PrettyPrintXMLWriter(writer, "    "), root);
+            getMemoryAccessor(liquibaseScript.getParentFile()).put(liquibaseScript.getName(), writer.toString().getBytes(StandardCharsets.UTF_8));
+            return;
+        }
         try (FileWriter writer = new FileWriter(liquibaseScript)) {
             Xpp3DomWriter.write(new PrettyPrintXMLWriter(writer, "    "), root);
         }
@@ -290,7 +349,16 @@ public class MergeChangeLogsMojo extends AbstractMojo {
             ds.scan();
             for (String file : ds.getIncludedFiles()) {
                 File script = new File(outputDirectory, file); // NOSONAR
-                FileUtils.copyFile(new File(ds.getBasedir(), file), script); // NOSONAR
+                if (isInMemory()) {
+                    // project resources replace dependency scripts with the same path
+                    String path = file.replace(File.separatorChar, '/');
+                    getMemoryAccessor(outputDirectory).put(path, Files.readAllBytes(new File(ds.getBasedir(), file).toPath()));
+                    classpathResources.put(script, path);
+                } else {
+                    FileUtils.copyFile(new File(ds.getBasedir(), file), script); // NOSONAR
+                    // project resources take precedence over dependency scripts
+                    classpathResources.remove(script);
+                }
                 scripts.add(script);
             }
         }
@@ -319,74 +387,171 @@ public class MergeChangeLogsMojo extends AbstractMojo {
     }
 
     protected Collection<File> extractScripts(Collection<Artifact> artifacts, File outputDirectory) throws IOException {
-        Set<File> scripts = new LinkedHashSet<>();
         MatchPatterns includesPatterns = MatchPatterns.from(ArrayUtils.addAll(getIncludes(), getChangeLogs()));
         MatchPatterns excludesPatterns = MatchPatterns.from(getExcludes());
         Log log = getLog();
 
-        for (Iterator<Artifact> iterator = artifacts.iterator(); iterator.hasNext();) { // NOSONAR
-            Artifact artifact = iterator.next();
-            File artifactFile = artifact.getFile();
-            if (artifactFile == null) {
+        List<Artifact> sources = new ArrayList<>(artifacts.size());
+        for (Artifact artifact : artifacts) {
+            if (artifact.getFile() == null) {
                 // skip project itself or artifact without a physical file
                 log.warn("Skip artifact without a physical file " + artifact.toString());
-                continue;
+            } else {
+                sources.add(artifact);
             }
+        }
+        if (isInMemory()) {
+            return readScripts(sources, outputDirectory, includesPatterns, excludesPatterns);
+        }
 
-            log.debug("Processing artifact " + artifact.toString());
-            if (artifactFile.isFile()) {
-                scripts.addAll(scanArchive(outputDirectory, includesPatterns, excludesPatterns, artifact));
+        // scripts already extracted by a previous build are not extracted again
+        String salt = HashUtil.hash(Arrays.toString(getIncludes()), Arrays.toString(getChangeLogs()), Arrays.toString(getExcludes()));
+        ExtractionManifest manifest = new ExtractionManifest(new File(outputDirectory, EXTRACTION_MANIFEST), salt);
+        manifest.load();
+        ScriptCache cache = extract && scriptCacheDirectory != null ? new ScriptCache(scriptCacheDirectory, salt) : null;
+        // cache folders of artifacts whose scripts are taken from the cache
+        Map<File, File> cachedFolders = new ConcurrentHashMap<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(getPoolSize(), sources.size())));
+        try {
+            // artifacts are scanned in parallel
+            List<Future<List<Script>>> scans = new ArrayList<>(sources.size());
+            for (Artifact artifact : sources) {
+                scans.add(executor.submit(() -> scanArtifact(artifact, includesPatterns, excludesPatterns, manifest, cache, cachedFolders)));
+            }
+
+            // the dependency order is preserved and a script contained in more
+            // artifacts is taken from the last one, as a sequential extraction would do
+            Set<File> scripts = new LinkedHashSet<>();
+            List<List<Script>> artifactScripts = new ArrayList<>(sources.size());
+            Map<String, Integer> owners = new HashMap<>();
+            for (int i = 0; i < sources.size(); i++) {
+                List<Script> files = scans.get(i).get();
+                for (Script file : files) {
+                    owners.put(file.getPath(), i);
+                    File script = new File(outputDirectory, file.getPath()); // NOSONAR
+                    scripts.add(script);
+                    if (!extract) {
+                        classpathResources.put(script, file.getPath().replace(File.separatorChar, '/'));
+                    }
+                }
+                artifactScripts.add(files);
+            }
+
+            List<File> artifactFiles = sources.stream().map(Artifact::getFile).collect(Collectors.toList());
+            if (extract) {
+                List<Future<Void>> copies = new ArrayList<>(sources.size());
+                for (int i = 0; i < sources.size(); i++) {
+                    Artifact artifact = sources.get(i);
+                    Integer owner = i;
+                    List<Script> files = artifactScripts.get(i).stream() //
+                            .filter(file -> owner.equals(owners.get(file.getPath()))) //
+                            .filter(file -> !manifest.isUpToDate(file, new File(outputDirectory, file.getPath()))) //
+                            .collect(Collectors.toList());
+                    if (!files.isEmpty()) {
+                        copies.add(executor.submit(() -> {
+                            copyScripts(artifact, files, outputDirectory, manifest, cache, cachedFolders.get(artifact.getFile()));
+                            return null;
+                        }));
+                    }
+                }
+                for (Future<Void> copy : copies) {
+                    copy.get();
+                }
             } else {
-                scripts.addAll(scanFolder(outputDirectory, artifact));
+                // scripts are read from the artifacts
+                dependencyClasspaths.put(outputDirectory.getAbsoluteFile(), artifactFiles);
             }
-        }
 
-        return scripts;
+            Collection<String> extracted = extract ? owners.keySet() : Collections.emptySet();
+            for (String stale : manifest.retain(artifactFiles, extracted, outputDirectory)) {
+                log.debug("Removed stale script " + stale);
+            }
+            storeManifest(manifest);
+
+            return scripts;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Script extraction has been interrupted");
+        } finally {
+            executor.shutdownNow();
+        }
     }
 
-    private Collection<File> scanFolder(File outputDirectory, Artifact artifact) throws IOException, ZipException {
+    private Collection<File> readScripts(List<Artifact> sources,
+                                         File outputDirectory,
+                                         MatchPatterns includesPatterns,
+                                         MatchPatterns excludesPatterns) throws IOException {
+        MemoryResourceAccessor accessor = getMemoryAccessor(outputDirectory);
         Set<File> scripts = new LinkedHashSet<>();
-        Log log = getLog();
-        File baseDir = artifact.getFile();
+        if (sources.isEmpty()) {
+            return scripts;
+        }
 
-        DirectoryScanner ds = new DirectoryScanner();
-        ds.setIncludes(ArrayUtils.addAll(getIncludes(), getChangeLogs()));
-        ds.setExcludes(getExcludes());
-        ds.setBasedir(baseDir);
-        ds.scan();
-        for (String file : ds.getIncludedFiles()) {
-            File script = new File(outputDirectory, file); // NOSONAR
-            if (log.isDebugEnabled()) {
-                log.debug("Copy " + file + " from " + artifact.toString() + " to " + script.getCanonicalPath());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(getPoolSize(), sources.size()));
+        try {
+            // artifacts are read in parallel
+            List<Future<Map<String, byte[]>>> reads = new ArrayList<>(sources.size());
+            for (Artifact artifact : sources) {
+                reads.add(executor.submit(() -> readArtifact(artifact, includesPatterns, excludesPatterns)));
+            }
+
+            // scripts of later artifacts in dependency order replace previous ones
+            for (Future<Map<String, byte[]>> read : reads) {
+                for (Map.Entry<String, byte[]> entry : read.get().entrySet()) {
+                    File script = new File(outputDirectory, entry.getKey()); // NOSONAR
+                    String path = entry.getKey().replace(File.separatorChar, '/');
+                    accessor.put(path, entry.getValue());
+                    classpathResources.put(script, path);
+                    scripts.add(script);
+                }
+            }
+            return scripts;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
             }
-            FileUtils.copyFile(new File(baseDir, file), script);
-            scripts.add(script);
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Script extraction has been interrupted");
+        } finally {
+            executor.shutdownNow();
         }
-        return scripts;
     }
 
-    private List<File> scanArchive(File outputDirectory,
-                             MatchPatterns includesPatterns,
-                             MatchPatterns excludesPatterns,
-                             Artifact artifact) throws IOException, ZipException {
-        List<File> scripts = new LinkedList<>();
-        Log log = getLog();
+    private Map<String, byte[]> readArtifact(Artifact artifact,
+                                             MatchPatterns includesPatterns,
+                                             MatchPatterns excludesPatterns) throws IOException {
+        getLog().debug("Reading artifact " + artifact.toString());
+        File artifactFile = artifact.getFile();
+        Map<String, byte[]> scripts = new LinkedHashMap<>();
+        if (!artifactFile.isFile()) {
+            DirectoryScanner ds = new DirectoryScanner();
+            ds.setIncludes(ArrayUtils.addAll(getIncludes(), getChangeLogs()));
+            ds.setExcludes(getExcludes());
+            ds.setBasedir(artifactFile);
+            ds.scan();
+            for (String file : ds.getIncludedFiles()) {
+                scripts.put(file, Files.readAllBytes(new File(artifactFile, file).toPath())); // NOSONAR
+            }
+            return scripts;
+        }
 
-        try (ZipFile zf = new ZipFile(artifact.getFile())) {
+        try (ZipFile zf = new ZipFile(artifactFile)) {
             Enumeration<? extends ZipEntry> entries = zf.entries();
             while (entries.hasMoreElements()) {
                 ZipEntry zipEntry = entries.nextElement();
-                String entryName = zipEntry.getName();
                 if (!zipEntry.isDirectory()) {
-                    entryName = entryName.replace('/', File.separatorChar);
+                    String entryName = zipEntry.getName().replace('/', File.separatorChar);
                     if (includesPatterns.matches(entryName, true) && !excludesPatterns.matches(entryName, true)) {
                         try (InputStream zeis = zf.getInputStream(zipEntry)) {
-                            File script = new File(outputDirectory, entryName); // NOSONAR
-                            if (log.isDebugEnabled()) {
-                                log.debug("Extracting " + entryName + " from " + artifact.toString() + " to " + script.getCanonicalPath());
-                            }
-                            FileUtils.copyInputStreamToFile(zeis, script);
-                            scripts.add(script);
+                            scripts.put(entryName, IOUtils.toByteArray(zeis));
                         }
                     }
                 }
@@ -395,6 +560,163 @@ public class MergeChangeLogsMojo extends AbstractMojo {
         return scripts;
     }
 
+    /**
+     * Returns if scripts, master changelog included, are kept in memory
+     * instead to be written in the output directory.
+     *
+     * @return {@code true} if no file is written
+     */
+    protected boolean isInMemory() {
+        return false;
+    }
+
+    /**
+     * Returns the accessor to the scripts gathered in memory for the given
+     * output directory.
+     *
+     * @param outputDirectory
+     *            the folder where scripts would be written
+     * @return the accessor of the scripts in memory
+     */
+    protected MemoryResourceAccessor getMemoryAccessor(File outputDirectory) {
+        return memoryAccessors.computeIfAbsent(outputDirectory.getAbsoluteFile(), f -> new MemoryResourceAccessor());
+    }
+
+    private List<Script> scanArtifact(Artifact artifact,
+                                      MatchPatterns includesPatterns,
+                                      MatchPatterns excludesPatterns,
+                                      ExtractionManifest manifest,
+                                      ScriptCache cache,
+                                      Map<File, File> cachedFolders) throws IOException {
+        getLog().debug("Processing artifact " + artifact.toString());
+        File artifactFile = artifact.getFile();
+        List<Script> scripts = new ArrayList<>();
+        if (!artifactFile.isFile()) {
+            DirectoryScanner ds = new DirectoryScanner();
+            ds.setIncludes(ArrayUtils.addAll(getIncludes(), getChangeLogs()));
+            ds.setExcludes(getExcludes());
+            ds.setBasedir(artifactFile);
+            ds.scan();
+            for (String file : ds.getIncludedFiles()) {
+                File script = new File(artifactFile, file); // NOSONAR
+                scripts.add(new Script(file, script.lastModified(), script.length()));
+            }
+            return scripts;
+        }
+
+        List<Script> previous = manifest.getScripts(artifactFile);
+        if (previous != null) {
+            // unchanged jar
+            return previous;
+        }
+        File cacheFolder = null;
+        if (cache != null && ScriptCache.isCacheable(artifact)) {
+            cacheFolder = cache.getFolder(artifact);
+            List<Script> cached = cache.load(cacheFolder);
+            if (cached != null) {
+                getLog().debug("Scripts of " + artifact.toString() + " are taken from " + cacheFolder);
+                cachedFolders.put(artifactFile, cacheFolder);
+                manifest.putScripts(artifactFile, cached);
+                return cached;
+            }
+        }
+        try (ZipFile zf = new ZipFile(artifactFile)) {
+            Enumeration<? extends ZipEntry> entries = zf.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry zipEntry = entries.nextElement();
+                if (!zipEntry.isDirectory()) {
+                    String entryName = zipEntry.getName().replace('/', File.separatorChar);
+                    if (includesPatterns.matches(entryName, true) && !excludesPatterns.matches(entryName, true)) {
+                        scripts.add(new Script(entryName, zipEntry.getCrc(), zipEntry.getSize()));
+                    }
+                }
+            }
+        }
+        manifest.putScripts(artifactFile, scripts);
+        if (cacheFolder != null) {
+            try {
+                cache.store(cacheFolder, artifactFile, scripts);
+                cachedFolders.put(artifactFile, cacheFolder);
+            } catch (IOException e) {
+                getLog().warn("Could not cache scripts of " + artifact.toString() + ": " + e.getMessage());
+            }
+        }
+        return scripts;
+    }
+
+    private void copyScripts(Artifact artifact,
+                             List<Script> scripts,
+                             File outputDirectory,
+                             ExtractionManifest manifest,
+                             ScriptCache cache,
+                             File cacheFolder) throws IOException {
+        Log log = getLog();
+        File artifactFile = artifact.getFile();
+        if (cacheFolder != null) {
+            for (Script file : scripts) {
+                File script = new File(outputDirectory, file.getPath()); // NOSONAR
+                if (log.isDebugEnabled()) {
+                    log.debug("Link " + file.getPath() + " from " + cacheFolder + " to " + script.getCanonicalPath());
+                }
+                cache.link(cacheFolder, file, script);
+                manifest.extracted(file, script);
+            }
+            return;
+        }
+        if (!artifactFile.isFile()) {
+            for (Script file : scripts) {
+                File script = new File(outputDirectory, file.getPath()); // NOSONAR
+                if (log.isDebugEnabled()) {
+                    log.debug("Copy " + file.getPath() + " from " + artifact.toString() + " to " + script.getCanonicalPath());
+                }
+                FileUtils.copyFile(new File(artifactFile, file.getPath()), script);
+                manifest.extracted(file, script);
+            }
+            return;
+        }
+
+        try (ZipFile zf = new ZipFile(artifactFile)) {
+            for (Script file : scripts) {
+                String entryName = file.getPath();
+                ZipEntry zipEntry = zf.getEntry(entryName.replace(File.separatorChar, '/'));
+                try (InputStream zeis = zf.getInputStream(zipEntry)) {
+                    File script = new File(outputDirectory, entryName); // NOSONAR
+                    if (log.isDebugEnabled()) {
+                        log.debug("Extracting " + entryName + " from " + artifact.toString() + " to " + script.getCanonicalPath());
+                    }
+                    // do not write through a link to the script cache
+                    Files.deleteIfExists(script.toPath());
+                    FileUtils.copyInputStreamToFile(zeis, script);
+                    manifest.extracted(file, script);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the artifact files that contain the scripts gathered in the
+     * given output directory when scripts are not extracted.
+     *
+     * @param outputDirectory
+     *            the folder given to {@link #extractScripts(Collection, File)}
+     * @return the artifact files in dependency order
+     */
+    protected List<File> getDependencyClasspath(File outputDirectory) {
+        return dependencyClasspaths.getOrDefault(outputDirectory.getAbsoluteFile(), Collections.emptyList());
+    }
+
+    private void storeManifest(ExtractionManifest manifest) {
+        try {
+            manifest.store();
+        } catch (IOException e) {
+            getLog().warn("Could not store the extraction manifest: " + e.getMessage());
+        }
+    }
+
+    private int getPoolSize() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
     public boolean isIncludeResources() {
         return includeResources;
     }
@@ -431,6 +753,30 @@ public class MergeChangeLogsMojo extends AbstractMojo {
         this.relativeToChangelogFile = relativeToChangelogFile;
     }
 
+    public File getScriptCacheDirectory() {
+        return scriptCacheDirectory;
+    }
+
+    public void setScriptCacheDirectory(File scriptCacheDirectory) {
+        this.scriptCacheDirectory = scriptCacheDirectory;
+    }
+
+    public boolean isExtract() {
+        return extract;
+    }
+
+    public void setExtract(boolean extract) {
+        this.extract = extract;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
     /**
      * Return the max number of attempts to resolve the dependency tree.
      *
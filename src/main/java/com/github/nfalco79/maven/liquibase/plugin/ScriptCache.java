@@ -0,0 +1,210 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.artifact.Artifact;
+
+import com.github.nfalco79.maven.liquibase.plugin.ExtractionManifest.Script;
+import com.github.nfalco79.maven.liquibase.plugin.util.HashUtil;
+
+/**
+ * Cache of the scripts extracted from released artifacts shared across
+ * builds.
+ * <p>
+ * Released artifacts never change, so the scripts that match a set of
+ * patterns are extracted once in a folder keyed by the artifact coordinates,
+ * the checksum of the jar and the hash of the patterns. Builds that depend on
+ * the same artifact link or copy the scripts from that folder without
+ * opening the jar.
+ *
+ * @author Nikolas Falco
+ */
+public class ScriptCache {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String INDEX_EXTENSION = ".idx";
+
+    private final File directory;
+    private final String salt;
+
+    /**
+     * Default constructor.
+     *
+     * @param directory
+     *            the root folder of the cache
+     * @param salt
+     *            identifies the patterns used to select scripts
+     */
+    public ScriptCache(File directory, String salt) {
+        this.directory = directory;
+        this.salt = salt;
+    }
+
+    /**
+     * Returns if the scripts of the given artifact could be cached.
+     *
+     * @param artifact
+     *            the artifact
+     * @return {@code true} for released jar artifacts
+     */
+    public static boolean isCacheable(Artifact artifact) {
+        return !artifact.isSnapshot() && artifact.getFile() != null && artifact.getFile().isFile();
+    }
+
+    /**
+     * Returns the folder where are cached the scripts of the given artifact.
+     *
+     * @param artifact
+     *            a released jar artifact
+     * @return the folder of the artifact scripts, it could not exists
+     * @throws IOException
+     *             in case of failure reading the artifact file
+     */
+    public File getFolder(Artifact artifact) throws IOException {
+        String checksum = HashUtil.hash(salt, HashUtil.hash(artifact.getFile()));
+        String name = artifact.getArtifactId() + (artifact.hasClassifier() ? "-" + artifact.getClassifier() : "") + "-" + checksum;
+        return new File(directory, String.join(File.separator, artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(), name));
+    }
+
+    /**
+     * Returns the scripts cached in the given folder.
+     *
+     * @param folder
+     *            the folder of the artifact scripts
+     * @return the cached scripts, {@code null} if the folder has not been
+     *         filled yet or it is unreadable
+     */
+    public List<Script> load(File folder) {
+        File index = getIndex(folder);
+        if (!index.isFile()) {
+            return null; // NOSONAR
+        }
+        try (DataInputStream is = new DataInputStream(new BufferedInputStream(Files.newInputStream(index.toPath())))) {
+            if (is.readInt() != FORMAT_VERSION) {
+                return null; // NOSONAR
+            }
+            int size = is.readInt();
+            List<Script> scripts = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                scripts.add(new Script(is.readUTF(), is.readLong(), is.readLong()));
+            }
+            return scripts;
+        } catch (IOException e) {
+            return null; // NOSONAR
+        }
+    }
+
+    /**
+     * Extracts the given scripts from the artifact file to the folder. The
+     * scripts are extracted in a temporary folder moved at the end, so
+     * concurrent builds never see a partially filled folder.
+     *
+     * @param folder
+     *            the folder of the artifact scripts
+     * @param artifactFile
+     *            the jar file
+     * @param scripts
+     *            the entries to extract
+     * @throws IOException
+     *             in case of failure extracting the scripts
+     */
+    public void store(File folder, File artifactFile, List<Script> scripts) throws IOException {
+        File parent = folder.getParentFile();
+        Files.createDirectories(parent.toPath());
+        File tmpFolder = Files.createTempDirectory(parent.toPath(), folder.getName()).toFile();
+        try {
+            try (ZipFile zf = new ZipFile(artifactFile)) {
+                for (Script script : scripts) {
+                    ZipEntry zipEntry = zf.getEntry(script.getPath().replace(File.separatorChar, '/'));
+                    try (InputStream zeis = zf.getInputStream(zipEntry)) {
+                        FileUtils.copyInputStreamToFile(zeis, new File(tmpFolder, script.getPath())); // NOSONAR
+                    }
+                }
+            }
+            try {
+                Files.move(tmpFolder.toPath(), folder.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                if (!folder.isDirectory()) {
+                    throw e;
+                }
+                // another build has moved the same scripts in the meanwhile
+            }
+
+            File tmpIndex = File.createTempFile(folder.getName(), ".tmp", parent);
+            try {
+                try (DataOutputStream os = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpIndex.toPath())))) {
+                    os.writeInt(FORMAT_VERSION);
+                    os.writeInt(scripts.size());
+                    for (Script script : scripts) {
+                        os.writeUTF(script.getPath());
+                        os.writeLong(script.getChecksum());
+                        os.writeLong(script.getSize());
+                    }
+                }
+                Files.move(tmpIndex.toPath(), getIndex(folder).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmpIndex.toPath());
+            }
+        } finally {
+            if (tmpFolder.exists()) {
+                FileUtils.deleteDirectory(tmpFolder);
+            }
+        }
+    }
+
+    /**
+     * Links the cached script to the target file, or copies it when the file
+     * system does not support hard links.
+     *
+     * @param folder
+     *            the folder of the artifact scripts
+     * @param script
+     *            the script to link
+     * @param target
+     *            the file to create
+     * @throws IOException
+     *             in case of failure creating the target file
+     */
+    public void link(File folder, Script script, File target) throws IOException {
+        File source = new File(folder, script.getPath()); // NOSONAR
+        Files.createDirectories(target.getAbsoluteFile().getParentFile().toPath());
+        Files.deleteIfExists(target.toPath());
+        try {
+            Files.createLink(target.toPath(), source.toPath());
+        } catch (IOException | UnsupportedOperationException e) { // NOSONAR
+            Files.copy(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private File getIndex(File folder) {
+        return new File(folder.getParentFile(), folder.getName() + INDEX_EXTENSION);
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.exception.ChangeLogParseException;
+import liquibase.exception.LiquibaseException;
+import liquibase.parser.core.ParsedNode;
+import liquibase.parser.core.ParsedNodeException;
+import liquibase.parser.core.xml.LiquibaseEntityResolver;
+import liquibase.resource.Resource;
+import liquibase.resource.ResourceAccessor;
+import liquibase.util.BomAwareInputStream;
+import liquibase.util.FileUtil;
+
+/**
+ * Parser of XML changelogs that gives changesets to an handler one at a time.
+ * <p>
+ * The Liquibase XML parser builds the node tree of the whole file before
+ * create any changeset. This parser builds the node tree of a single element
+ * of the changelog, loads it into the {@link DatabaseChangeLog} and discards
+ * it, so that the memory used does not depend on the changelog size.
+ *
+ * @author Nikolas Falco
+ */
+public class StreamingChangeLogParser {
+
+    /**
+     * Receives the changesets of the parsed changelog in the order they are
+     * declared.
+     */
+    @FunctionalInterface
+    public interface ChangeSetHandler {
+        /**
+         * Handles a parsed changeset, it will be discarded when this method
+         * returns.
+         *
+         * @param changeSet
+         *            the parsed changeset
+         * @return {@code false} to stop the parse, {@code true} otherwise
+         * @throws LiquibaseException
+         *             to stop the parse with a failure
+         */
+        boolean handle(ChangeSet changeSet) throws LiquibaseException;
+    }
+
+    /*
+     * Stops the parse without a failure.
+     */
+    @SuppressWarnings("serial")
+    private static class StopException extends SAXException {
+    }
+
+    /*
+     * Builds the node tree like the Liquibase SAX handler does but loads and
+     * removes each child of the root node as soon as it is complete.
+     */
+    private static class StreamingHandler extends DefaultHandler {
+        private final DatabaseChangeLog changeLog;
+        private final ResourceAccessor resourceAccessor;
+        private final ChangeSetHandler handler;
+        private final Deque<ParsedNode> nodeStack = new LinkedList<>();
+        private final Deque<StringBuilder> textStack = new LinkedList<>();
+        private String rootName;
+        private Attributes rootAttributes;
+
+        private StreamingHandler(DatabaseChangeLog changeLog, ResourceAccessor resourceAccessor, ChangeSetHandler handler) {
+            this.changeLog = changeLog;
+            this.resourceAccessor = resourceAccessor;
+            this.handler = handler;
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            // text between changesets is meaningless and would grow with the file
+            if (nodeStack.size() > 1) {
+                textStack.peek().append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+            try {
+                ParsedNode node = newNode(localName, attributes);
+                if (nodeStack.isEmpty()) {
+                    rootName = localName;
+                    rootAttributes = new AttributesImpl(attributes);
+                } else {
+                    if (nodeStack.size() == 1) {
+                        // a new root node contains only its attributes and this element
+                        nodeStack.pop();
+                        nodeStack.push(newNode(rootName, rootAttributes));
+                    }
+                    nodeStack.peek().addChild(node);
+                }
+                nodeStack.push(node);
+                textStack.push(new StringBuilder());
+            } catch (ParsedNodeException e) {
+                throw new SAXException(e);
+            }
+        }
+
+        private ParsedNode newNode(String name, Attributes attributes) throws ParsedNodeException {
+            ParsedNode node = new ParsedNode(null, name);
+            for (int i = 0; i < attributes.getLength(); i++) {
+                node.addChild(null, attributes.getLocalName(i), attributes.getValue(i));
+            }
+            return node;
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            ParsedNode node = nodeStack.pop();
+            String text = textStack.pop().toString().trim();
+            try {
+                if (!text.isEmpty()) {
+                    node.setValue(text);
+                }
+                if (nodeStack.size() == 1) {
+                    load(nodeStack.peek());
+                }
+            } catch (ParsedNodeException | LiquibaseException e) {
+                throw new SAXException(e);
+            }
+        }
+
+        private void load(ParsedNode root) throws ParsedNodeException, LiquibaseException, StopException {
+            changeLog.load(root, resourceAccessor);
+
+            // included changelogs could add more than one changeset
+            List<ChangeSet> changeSets = new ArrayList<>(changeLog.getChangeSets());
+            changeLog.getChangeSets().clear();
+            for (ChangeSet changeSet : changeSets) {
+                if (!handler.handle(changeSet)) {
+                    throw new StopException();
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses the given changelog.
+     *
+     * @param physicalChangeLogLocation
+     *            the changelog path
+     * @param changeLogParameters
+     *            the changelog parameters
+     * @param resourceAccessor
+     *            used to read the changelog and included files
+     * @param handler
+     *            receives each changeset of the changelog until it returns
+     *            {@code false}
+     * @return the parsed changelog without changesets
+     * @throws LiquibaseException
+     *             in case of parse failure or if the handler fails
+     */
+    public DatabaseChangeLog parse(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor, ChangeSetHandler handler) throws LiquibaseException {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog(DatabaseChangeLog.normalizePath(physicalChangeLogLocation));
+        changeLog.setChangeLogParameters(changeLogParameters);
+
+        try {
+            Resource resource = resourceAccessor.get(physicalChangeLogLocation);
+            if (!resource.exists()) {
+                throw new ChangeLogParseException(FileUtil.getFileNotFoundMessage(physicalChangeLogLocation));
+            }
+
+            SAXParserFactory factory = SAXParserFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            XMLReader reader = factory.newSAXParser().getXMLReader();
+            reader.setEntityResolver(new LiquibaseEntityResolver());
+            reader.setContentHandler(new StreamingHandler(changeLog, resourceAccessor, handler));
+            try (InputStream is = resource.openInputStream()) {
+                reader.parse(new InputSource(new BomAwareInputStream(is)));
+            }
+        } catch (StopException e) {
+            // the handler does not want more changesets
+        } catch (SAXParseException e) {
+            throw new ChangeLogParseException("Error parsing line " + e.getLineNumber() + " column " + e.getColumnNumber() + " of " + physicalChangeLogLocation + ": " + e.getMessage(), e);
+        } catch (SAXException e) {
+            if (e.getException() instanceof LiquibaseException) {
+                throw (LiquibaseException) e.getException();
+            }
+            if (e.getException() instanceof ParsedNodeException) {
+                throw new ChangeLogParseException(e.getException());
+            }
+            throw new ChangeLogParseException("Invalid Migration File: " + e.getMessage(), e);
+        } catch (IOException | ParserConfigurationException e) {
+            throw new ChangeLogParseException("Error Reading Changelog File: " + e.getMessage(), e);
+        }
+        return changeLog;
+    }
+
+}
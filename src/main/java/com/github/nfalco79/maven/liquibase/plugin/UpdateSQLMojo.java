@@ -67,12 +67,12 @@ import com.github.nfalco79.maven.dependency.graph.BottomUpDependencyVisitor;
 import com.github.nfalco79.maven.dependency.graph.DependencyGraphSession;
 import com.github.nfalco79.maven.liquibase.plugin.log.MavenLogService;
 import com.github.nfalco79.maven.liquibase.plugin.log.MavenUIService;
+import com.github.nfalco79.maven.liquibase.plugin.resource.DependencyResourceAccessor;
 
 import liquibase.Contexts;
 import liquibase.Liquibase;
 import liquibase.Scope;
 import liquibase.database.Database;
-import liquibase.exception.LiquibaseException;
 import liquibase.integration.commandline.CommandLineUtils;
 import liquibase.resource.ClassLoaderResourceAccessor;
 import liquibase.resource.CompositeResourceAccessor;
@@ -118,6 +118,14 @@ public class UpdateSQLMojo extends MergeChangeLogsMojo {
     @Parameter(property = "ext.liquibase.backwardCompatibility.skip", defaultValue = "true")
     private boolean skipBackwardCompatibility = true;
 
+    /**
+     * Gather scripts and generate the master changelog in memory, so that no
+     * file is written before to run liquibase. When enabled, the extract and
+     * the script cache options are not used.
+     */
+    @Parameter(property = "ext.liquibase.inMemory", defaultValue = "false")
+    private boolean inMemory = false;
+
     /**
      * Project types which this plugin supports.
      */
@@ -284,27 +292,40 @@ public class UpdateSQLMojo extends MergeChangeLogsMojo {
                     dbConfguration.getDefaultCatalogName(), //
                     dbConfguration.getDefaultSchemaName(), //
                     false, false, //
-                    null, null, null, null, null, null, null)) {
+                    null, null, null, null, null, null, null); //
+                ResourceAccessor resourceAccessor = newResourceAccessor(liquibaseScript)) {
 
             // liquibase update run
-            File root = liquibaseScript.getParentFile();
-            while (root.getParentFile() != null) {
-                root = root.getParentFile();
-            }
-            File rootFolder = liquibaseScript.getParentFile().getAbsoluteFile();
-            Liquibase liquibase = new Liquibase(liquibaseScript.getName(), buildResourceAccessor(rootFolder, root), database);
+            Liquibase liquibase = new Liquibase(liquibaseScript.getName(), resourceAccessor, database);
             liquibase.update(new Contexts());
-        } catch (IOException | LiquibaseException e) {
+        } catch (Exception e) { // NOSONAR resource accessors are declared to throw Exception on close
             throw new MojoExecutionException(e.getMessage(), e);
         }
     }
 
-    private ResourceAccessor buildResourceAccessor(File ... roots) throws IOException {
+    private ResourceAccessor newResourceAccessor(File liquibaseScript) throws IOException {
+        File root = liquibaseScript.getParentFile();
+        while (root.getParentFile() != null) {
+            root = root.getParentFile();
+        }
+        File rootFolder = liquibaseScript.getParentFile().getAbsoluteFile();
+        if (isInMemory()) {
+            // the output directory has never been created
+            return new CompositeResourceAccessor(getMemoryAccessor(rootFolder), buildResourceAccessor(Collections.emptyList(), root));
+        }
+        return buildResourceAccessor(getDependencyClasspath(rootFolder), rootFolder, root);
+    }
+
+    private ResourceAccessor buildResourceAccessor(List<File> dependencyClasspath, File ... roots) throws IOException {
         CompositeResourceAccessor resourceAccessor = new CompositeResourceAccessor();
         for (File root : roots) {
             resourceAccessor.addResourceAccessor(new DirectoryResourceAccessor(root));
             resourceAccessor.addResourceAccessor(new ClassLoaderResourceAccessor(new URLClassLoader(new URL[] { root.toURI().toURL() })));
         }
+        if (!dependencyClasspath.isEmpty()) {
+            // scripts of dependencies that have not been extracted
+            resourceAccessor.addResourceAccessor(new DependencyResourceAccessor(dependencyClasspath));
+        }
 
         return resourceAccessor;
     }
@@ -322,6 +343,15 @@ public class UpdateSQLMojo extends MergeChangeLogsMojo {
         }
     }
 
+    @Override
+    protected boolean isInMemory() {
+        return inMemory;
+    }
+
+    public void setInMemory(boolean inMemory) {
+        this.inMemory = inMemory;
+    }
+
     public boolean isLimitLog() {
         return limitLog;
     }
@@ -15,21 +15,46 @@
  */
 package com.github.nfalco79.maven.liquibase.plugin;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.text.MessageFormat;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
-
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -40,27 +65,32 @@ import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.util.DirectoryScanner;
 import org.codehaus.plexus.util.FileUtils;
 
+import com.github.nfalco79.maven.liquibase.plugin.resource.SourceResourceAccessor;
+import com.github.nfalco79.maven.liquibase.plugin.util.HashUtil;
 import com.github.nfalco79.maven.liquibase.plugin.validator.ChangeSetIssueIdValidator;
+import com.github.nfalco79.maven.liquibase.plugin.validator.CompositeValidator;
 import com.github.nfalco79.maven.liquibase.plugin.validator.FilePathValidator;
 import com.github.nfalco79.maven.liquibase.plugin.validator.IChangeSetValidator;
 import com.github.nfalco79.maven.liquibase.plugin.validator.IChangeValidator;
 import com.github.nfalco79.maven.liquibase.plugin.validator.ValidationError;
-import com.github.nfalco79.maven.liquibase.plugin.validator.Validator;
 import com.github.nfalco79.maven.liquibase.plugin.validator.ValidatorFactory;
 
 import liquibase.change.Change;
+import liquibase.change.core.TagDatabaseChange;
 import liquibase.changelog.ChangeLogParameters;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.exception.LiquibaseException;
 import liquibase.parser.ChangeLogParser;
 import liquibase.parser.ChangeLogParserFactory;
-import liquibase.resource.DirectoryResourceAccessor;
 import liquibase.resource.ResourceAccessor;
 
 @Mojo(name = "validate", defaultPhase = LifecyclePhase.PROCESS_RESOURCES)
 public class ValidateMojo extends AbstractMojo {
 
+    // number of validated changelogs between two snapshots of the validation state
+    private static final int SNAPSHOT_INTERVAL = 10;
+
     /**
      * Define the list of available script file extension.
      */
@@ -68,6 +98,52 @@ public class ValidateMojo extends AbstractMojo {
         xml, yml, sql, json
     }
 
+    /*
+     * Issues of a changelog in order of changes, issues are passed to the sink
+     * as soon as all validations before them are completed. Pending
+     * validations are cancelled when the sink is full.
+     */
+    private static final class ChangeLogIssues {
+        private final IssueSink sink;
+        private final List<ValidationError> issues = new ArrayList<>();
+        private final Deque<CompletableFuture<Collection<ValidationError>>> pending = new ArrayDeque<>();
+
+        private ChangeLogIssues(IssueSink sink) {
+            this.sink = sink;
+        }
+
+        private boolean add(Collection<ValidationError> result) {
+            return add(CompletableFuture.completedFuture(result));
+        }
+
+        private boolean add(CompletableFuture<Collection<ValidationError>> result) {
+            pending.add(result);
+            return flush(false);
+        }
+
+        /*
+         * Passes to the sink the issues of completed validations, returns
+         * false if the sink is full.
+         */
+        private boolean flush(boolean wait) {
+            while (!pending.isEmpty() && !sink.isFull() && (wait || pending.peek().isDone())) {
+                Collection<ValidationError> result = pending.poll().join();
+                issues.addAll(result);
+                sink.acceptAll(result);
+            }
+            if (sink.isFull()) {
+                pending.forEach(result -> result.cancel(false));
+                pending.clear();
+                return false;
+            }
+            return true;
+        }
+
+        private List<ValidationError> getIssues() {
+            return issues;
+        }
+    }
+
     public static final String ISSUE_PATTERN = "[A-Z][A-Z0-9]{3,}-\\d+|\\d+{1,6}"; // JIRA + Redmine
 
     /**
@@ -121,7 +197,82 @@ public class ValidateMojo extends AbstractMojo {
     @Parameter
     private Map<String, String> configMap = new HashMap<>();
 
+    /**
+     * Number of threads used to parse changelogs and to run stateless
+     * validators, zero or a negative value means the number of available
+     * processors.
+     */
+    @Parameter(property = "ext.liquibase.threads", defaultValue = "0")
+    private int threads;
+
+    /**
+     * Parse only changelogs that are not included by other changelogs, so
+     * that each file is parsed and each changeset is validated once. The
+     * changelogs are validated following the include order.
+     */
+    @Parameter(property = "ext.liquibase.followIncludes", defaultValue = "false")
+    private boolean followIncludes;
+
+    /**
+     * Reuse the validation result of changelogs that did not change since the
+     * previous build.
+     */
+    @Parameter(property = "ext.liquibase.useCache", defaultValue = "true")
+    private boolean useCache;
+
+    /**
+     * Folder where the validation cache is stored.
+     */
+    @Parameter(defaultValue = "${project.build.directory}/ext-liquibase-validation")
+    private File cacheDirectory;
+
+    /**
+     * XML changelogs bigger than this size in bytes are validated while they
+     * are parsed, keeping in memory only one changeset at a time. Zero or a
+     * negative value disables the streaming validation.
+     */
+    @Parameter(property = "ext.liquibase.streamingThreshold", defaultValue = "0")
+    private long streamingThreshold;
+
+    /**
+     * Changesets before this marker are only replayed to know the database
+     * schema and are not validated. The marker is the id of a changeset or
+     * the tag of a {@code tagDatabase} change.
+     */
+    @Parameter(property = "ext.liquibase.validateFrom")
+    private String validateFrom;
+
+    /**
+     * Validate only changesets of changelogs added or modified since this git
+     * reference (a branch, a tag or a commit) of the local repository.
+     * Changesets of other changelogs are only replayed to know the database
+     * schema.
+     */
+    @Parameter(property = "ext.liquibase.changedSince")
+    private String changedSince;
+
+    /**
+     * Stop the validation at the first violation.
+     */
+    @Parameter(property = "ext.liquibase.failFast", defaultValue = "false")
+    private boolean failFast;
+
+    /**
+     * Stop the validation after this number of violations, zero or a negative
+     * value means no limit.
+     */
+    @Parameter(property = "ext.liquibase.maxIssues", defaultValue = "0")
+    private int maxIssues;
+
+    @Parameter(readonly = true, defaultValue = "${plugin.version}")
+    private String pluginVersion;
+
     private ValidatorFactory validationFactory;
+    // the validateFrom marker has not been found yet
+    private boolean beforeMarker;
+    // absolute paths of files changed since the changedSince reference
+    private Set<String> changedFiles;
+    private IncludeGraph includeGraph;
 
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
@@ -147,6 +298,7 @@ public class ValidateMojo extends AbstractMojo {
         validationFactory.setIncludeChanges(include);
         validationFactory.setExcludeChanges(exclude);
         validationFactory.setIgnoreRules(ignores);
+        validationFactory.setConfiguration(configMap);
 
         // add extra configured chageset validator, all these validator are like singleton per factory instance
         validationFactory.addValidator(new ChangeSetIssueIdValidator(issuePattern));
@@ -159,76 +311,485 @@ public class ValidateMojo extends AbstractMojo {
         // setup loggers
 //        LogService.setLoggerFactory(new MavenLogFactory(this.getLog(), Level.parse(logLevel)));
 
-        Collection<ValidationError> issues = newIssueContainer();
-        Map<String, ChangeLogParser> parsers = new HashMap<>(Extension.values().length);
+        beforeMarker = StringUtils.isNotBlank(validateFrom);
+        // issues are printed as soon as they are gathered
+        IssueSink sink = new IssueSink(getLog(), failOnError, failFast ? 1 : maxIssues, newIssueContainer());
+        changedFiles = getChangedFiles();
+        // a single accessor caches lookups of all parsed changelogs
+        ResourceAccessor sourceAccessor = new SourceResourceAccessor(source);
+        String[] changeLogFiles = getChangeLogsToValidate(sourceAccessor);
+        ValidationCache cache = newValidationCache();
+
+        // issues of leading changelogs whose key still matches are reused
+        String upstream = "";
+        int upToDate = 0;
         try {
-            for (String changeLog : getChangeLogs()) {
-                String ext = FileUtils.getExtension(changeLog);
-
-                File changeLogFile = new File(source, changeLog); // NOSONAR
-                if (!changeLogFile.isFile()) {
-                    continue;
-                }
-                File root = changeLogFile.getParentFile();
-                while (root.getParentFile() != null) {
-                    root = root.getParentFile();
+            while (cache != null && upToDate < changeLogFiles.length) {
+                String changeLog = changeLogFiles[upToDate];
+                ValidationCache.Entry entry = cache.get(changeLog);
+                // files added to an includeAll folder are not part of the key
+                String key = entry != null && !includeGraph.isDynamic(changeLog) ? cache.newKey(upstream, changeLog, entry.getFiles()) : null;
+                if (key == null || !key.equals(entry.getKey())) {
+                    break;
                 }
-                ResourceAccessor resourceAccessor = new DirectoryResourceAccessor(root);
+                upstream = key;
+                upToDate++;
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unexpected excetion", e);
+        }
+        if (cache != null && upToDate == changeLogFiles.length) {
+            getLog().info("Validation of " + upToDate + " changelogs is up to date");
+            for (String changeLog : changeLogFiles) {
+                sink.acceptAll(cache.get(changeLog).getIssues());
+            }
+            reportIssues(sink);
+            return;
+        }
 
-                ChangeLogParser parser = parsers.get(ext);
-                if (parser == null) {
-                    parser = ChangeLogParserFactory.getInstance().getParser(ext, resourceAccessor);
-                    parsers.put(ext, parser);
+        // resume the replay from the newest snapshot saved for an up to date changelog
+        int restored = upToDate;
+        while (restored > 0 && !restoreSnapshot(cache.getSnapshot(cache.get(changeLogFiles[restored - 1]).getKey()))) {
+            restored--;
+        }
+        // keys of changelogs whose snapshot could be restored by the next build
+        Set<String> reachable = new HashSet<>();
+        // physical files already validated as part of a previous changelog
+        Set<String> validatedFiles = new HashSet<>();
+        upstream = "";
+        if (restored > 0) {
+            getLog().debug("Resume validation after " + changeLogFiles[restored - 1]);
+            beforeMarker = cache.get(changeLogFiles[restored - 1]).isBeforeMarker();
+            for (int i = 0; i < restored; i++) {
+                ValidationCache.Entry cacheEntry = cache.get(changeLogFiles[i]);
+                upstream = cacheEntry.getKey();
+                reachable.add(upstream);
+                sink.acceptAll(cacheEntry.getIssues());
+                validatedFiles.addAll(cacheEntry.getFiles());
+            }
+        }
+
+        // pools are created only when there is something to run on them
+        int poolSize = getPoolSize();
+        ExecutorService executor = null;
+        ExecutorService checkExecutor = null;
+        // parsed changelogs waiting to be validated
+        Map<String, Future<DatabaseChangeLog>> changeLogs = new HashMap<>();
+        try {
+            /*
+             * changelogs are parsed ahead in parallel but validated in the
+             * same order of the scan, the look ahead is bounded so that only
+             * few parsed changelogs are kept in memory
+             */
+            Map<String, ChangeLogParser> parsers = new HashMap<>(Extension.values().length);
+            List<String> toValidate = Arrays.asList(changeLogFiles).subList(restored, changeLogFiles.length);
+            int lookAhead = poolSize > 1 ? poolSize * 2 : 0;
+            int submitted = 0;
+            // key of the last changelog validated entirely
+            String validatedKey = null;
+            int unsaved = 0;
+            for (int index = 0; index < toValidate.size() && !sink.isFull(); index++) {
+                // the look ahead stops at changelogs that must be parsed alone
+                int last = isParsedAlone(toValidate.get(index)) ? index : index + lookAhead;
+                while (submitted < toValidate.size() && submitted <= last //
+                        && (submitted == index || !isParsedAlone(toValidate.get(submitted)))) {
+                    String changeLog = toValidate.get(submitted++);
+                    if (isStreaming(changeLog)) {
+                        // parsed while validated, one changeset at a time
+                        changeLogs.put(changeLog, null);
+                        continue;
+                    }
+                    // parsers are looked up in this thread because it also initialises the Liquibase scope
+                    String ext = FileUtils.getExtension(changeLog);
+                    ChangeLogParser parser = parsers.get(ext);
+                    if (parser == null) {
+                        parser = ChangeLogParserFactory.getInstance().getParser(ext, sourceAccessor);
+                        parsers.put(ext, parser);
+                    }
+                    ChangeLogParser changeLogParser = parser;
+                    Callable<DatabaseChangeLog> task = () -> parse(changeLogParser, changeLog, sourceAccessor);
+                    if (lookAhead == 0 || isParsedAlone(changeLog)) {
+                        // parsed in this thread when the changelog is validated
+                        changeLogs.put(changeLog, new FutureTask<>(task));
+                    } else {
+                        if (executor == null) {
+                            executor = Executors.newFixedThreadPool(poolSize);
+                        }
+                        changeLogs.put(changeLog, executor.submit(task));
+                    }
                 }
 
-                DatabaseChangeLog dbChangeLog = parser.parse(changeLogFile.getAbsolutePath(), new ChangeLogParameters(), resourceAccessor);
-                for (ChangeSet cs : dbChangeLog.getChangeSets()) {
-                    if (skipChangeSet(cs)) {
-                        getLog().info("Skip changeset " + cs.getId() + " per configuration");
+                String changeLog = toValidate.get(index);
+                Future<DatabaseChangeLog> parsed = changeLogs.remove(changeLog);
+                // up to date changelogs are only replayed to rebuild the storage
+                boolean replayOnly = restored + index < upToDate;
+                ChangeLogIssues changeLogIssues = new ChangeLogIssues(sink);
+                List<String> files;
+                if (parsed == null) {
+                    Set<String> changeSetFiles = new LinkedHashSet<>();
+                    DatabaseChangeLog dbChangeLog = parse(changeLog, sourceAccessor, cs -> {
+                        validate(cs, replayOnly, validatedFiles, null, changeLogIssues);
+                        addFiles(changeSetFiles, cs);
+                        return changeLogIssues.flush(true);
+                    });
+                    if (sink.isFull()) {
+                        // the changelog could be validated partially, the storage does not match any key
+                        validatedKey = null;
+                        break;
+                    }
+                    files = new ArrayList<>(getFiles(dbChangeLog, Collections.emptyList()));
+                    changeSetFiles.removeAll(files);
+                    files.addAll(changeSetFiles);
+                } else {
+                    if (parsed instanceof FutureTask) {
+                        // runs in this thread unless a pool thread has already started it
+                        ((FutureTask<DatabaseChangeLog>) parsed).run();
+                    }
+                    if (checkExecutor == null && poolSize > 1) {
+                        checkExecutor = Executors.newFixedThreadPool(poolSize);
+                    }
+                    DatabaseChangeLog dbChangeLog = parsed.get();
+                    if (dbChangeLog == null) {
                         continue;
                     }
 
-                    IChangeSetValidator csValidator = newChangeSetValidator(cs);
-                    csValidator.configure(configMap);
-                    issues.addAll(csValidator.validate(cs));
+                    /*
+                     * changes are replayed in order to update the storage and
+                     * run validators that depends on it, stateless validators
+                     * run in parallel and their issues are gathered in order
+                     * of changes
+                     */
+                    for (ChangeSet cs : dbChangeLog.getChangeSets()) {
+                        validate(cs, replayOnly, validatedFiles, checkExecutor, changeLogIssues);
+                        if (sink.isFull()) {
+                            break;
+                        }
+                    }
+                    if (!changeLogIssues.flush(true)) {
+                        // the changelog could be validated partially, the storage does not match any key
+                        validatedKey = null;
+                        break;
+                    }
+                    files = getFiles(dbChangeLog, dbChangeLog.getChangeSets());
+                }
 
-                    for (Change change : cs.getChanges()) {
-                        IChangeValidator validator = newValidator(change);
-                        validator.configure(configMap);
-                        issues.addAll(validator.validate(change));
+                if (replayOnly) {
+                    ValidationCache.Entry cacheEntry = cache.get(changeLog);
+                    upstream = cacheEntry.getKey();
+                    reachable.add(upstream);
+                    changeLogIssues.add(cacheEntry.getIssues());
+                } else if (cache != null) {
+                    upstream = cache.newKey(upstream, changeLog, files);
+                    reachable.add(upstream);
+                    cache.put(changeLog, new ValidationCache.Entry(upstream, files, changeLogIssues.getIssues(), beforeMarker));
+                    validatedKey = upstream;
+                    if (++unsaved == SNAPSHOT_INTERVAL) {
+                        saveSnapshot(cache.getSnapshot(validatedKey));
+                        unsaved = 0;
                     }
                 }
+                if (followIncludes) {
+                    validatedFiles.addAll(files);
+                }
 
-                if (issues.isEmpty()) {
+                if (changeLogIssues.getIssues().isEmpty()) {
                     getLog().info("No violations found on " + changeLog);
                 }
             }
-        } catch (FileNotFoundException | LiquibaseException e) {
+            if (validatedKey != null && unsaved > 0) {
+                // the next build resumes from here when new changelogs are added
+                saveSnapshot(cache.getSnapshot(validatedKey));
+            }
+        } catch (IOException | LiquibaseException e) {
             throw new MojoExecutionException("Unexpected excetion", e);
+        } catch (ExecutionException | CompletionException e) {
+            throw new MojoExecutionException("Unexpected excetion", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Validation has been interrupted", e);
+        } finally {
+            // changelogs parsed ahead are not needed when the validation stops
+            changeLogs.values().stream().filter(Objects::nonNull).forEach(parsed -> parsed.cancel(true));
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            if (checkExecutor != null) {
+                checkExecutor.shutdownNow();
+            }
+        }
+
+        if (cache != null) {
+            try {
+                cache.retain(Arrays.asList(changeLogFiles), reachable);
+                cache.store();
+            } catch (IOException e) {
+                getLog().warn("Could not store the validation cache: " + e.getMessage());
+            }
+        }
+
+        if (beforeMarker && !sink.isFull()) {
+            getLog().warn("The changeset " + validateFrom + " from which validate has not been found, no changeset has been validated");
         }
+        reportIssues(sink);
+    }
 
-        if (!issues.isEmpty()) {
-            // gather all violation by file name
-            Map<String, List<ValidationError>> issuesMap = buildIssuesByFile(issues);
-            for (Entry<String, List<ValidationError>> entry : issuesMap.entrySet()) {
-                printViolation("There are violations on changelog " + entry.getKey());
-                // print all violations of a file
-                for (ValidationError issue : entry.getValue()) {
-                    printIssue(issue);
+    /*
+     * Replays the changes of the changeset to update the storage and collects
+     * the validation results, stateless validators run on the given executor
+     * or in this thread if none. Changes after the one that fills the sink are
+     * not validated.
+     */
+    private void validate(ChangeSet cs, boolean replayOnly, Set<String> validatedFiles, Executor checkExecutor, ChangeLogIssues issues) {
+        if (beforeMarker && isMarker(cs)) {
+            getLog().info("Validate changesets from " + cs.getId());
+            beforeMarker = false;
+        }
+        if (skipChangeSet(cs)) {
+            getLog().info("Skip changeset " + cs.getId() + " per configuration");
+            return;
+        }
+        if (followIncludes && validatedFiles.contains(getFile(cs.getChangeLog()))) {
+            // included also by a previous changelog
+            return;
+        }
+
+        if (replayOnly || beforeMarker || !isChanged(cs)) {
+            // up to date and released changesets only update the storage
+            replay(cs);
+            return;
+        }
+
+        IChangeSetValidator csValidator = newChangeSetValidator(cs);
+        if (!issues.add(csValidator.validate(cs))) {
+            return;
+        }
+
+        for (Change change : cs.getChanges()) {
+            IChangeValidator validator = newValidator(change);
+            CompletableFuture<Collection<ValidationError>> result;
+            if (validator instanceof CompositeValidator) {
+                Supplier<Collection<ValidationError>> task = ((CompositeValidator) validator).prepare(change);
+                if (checkExecutor != null) {
+                    result = CompletableFuture.supplyAsync(task, checkExecutor);
+                } else {
+                    result = CompletableFuture.completedFuture(task.get());
                 }
+            } else {
+                result = CompletableFuture.completedFuture(validator.validate(change));
+            }
+            if (!issues.add(result)) {
+                return;
+            }
+        }
+    }
+
+    private boolean isChanged(ChangeSet cs) {
+        return changedFiles == null || changedFiles.contains(normalize(getFile(cs.getChangeLog())));
+    }
+
+    private String normalize(String path) {
+        return Paths.get(path).toAbsolutePath().normalize().toString();
+    }
+
+    private Set<String> getChangedFiles() throws MojoExecutionException {
+        if (StringUtils.isBlank(changedSince)) {
+            return null; // NOSONAR
+        }
+        try {
+            Set<String> files = new HashSet<>();
+            for (String file : GitChanges.getChangedFiles(source, changedSince)) {
+                files.add(normalize(new File(source, file).getPath()));
+            }
+            getLog().info(files.size() + " files changed since " + changedSince);
+            return files;
+        } catch (IOException e) {
+            throw new MojoExecutionException("Could not find files changed since " + changedSince, e);
+        }
+    }
+
+    private boolean isMarker(ChangeSet cs) {
+        if (validateFrom.equals(cs.getId())) {
+            return true;
+        }
+        return cs.getChanges().stream() //
+                .filter(TagDatabaseChange.class::isInstance) //
+                .anyMatch(change -> validateFrom.equals(((TagDatabaseChange) change).getTag()));
+    }
 
+    private boolean restoreSnapshot(File snapshot) {
+        if (!snapshot.isFile()) {
+            return false;
+        }
+        try (InputStream is = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(snapshot.toPath())))) {
+            validationFactory.restoreSnapshot(is);
+            return true;
+        } catch (IOException e) {
+            getLog().warn("Could not restore the validation snapshot " + snapshot + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void saveSnapshot(File snapshot) throws IOException {
+        Files.createDirectories(snapshot.getParentFile().toPath());
+        try (OutputStream os = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(snapshot.toPath())))) {
+            validationFactory.saveSnapshot(os);
+        }
+    }
+
+    private void reportIssues(IssueSink sink) throws MojoFailureException {
+        if (sink.isFull()) {
+            getLog().warn("Validation stopped after " + sink.getCount() + " violations");
+        }
+        if (sink.getCount() > 0 && failOnError) {
+            throw new MojoFailureException("There are violations on changelogs");
+        }
+    }
+
+    private DatabaseChangeLog parse(ChangeLogParser parser, String changeLog, ResourceAccessor resourceAccessor) throws LiquibaseException {
+        File changeLogFile = new File(source, changeLog); // NOSONAR
+        if (!changeLogFile.isFile()) {
+            return null;
+        }
+        return parser.parse(changeLogFile.getAbsolutePath(), new ChangeLogParameters(), resourceAccessor);
+    }
+
+    private DatabaseChangeLog parse(String changeLog, ResourceAccessor resourceAccessor, StreamingChangeLogParser.ChangeSetHandler handler) throws LiquibaseException {
+        File changeLogFile = new File(source, changeLog); // NOSONAR
+        return new StreamingChangeLogParser().parse(changeLogFile.getAbsolutePath(), new ChangeLogParameters(), resourceAccessor, handler);
+    }
+
+    private boolean isStreaming(String changeLog) {
+        File changeLogFile = new File(source, changeLog); // NOSONAR
+        return streamingThreshold > 0 && Extension.xml.name().equals(FileUtils.getExtension(changeLog)) //
+                && changeLogFile.length() > streamingThreshold;
+    }
+
+    private File getRoot() {
+        File root = source.getAbsoluteFile();
+        while (root.getParentFile() != null) {
+            root = root.getParentFile();
+        }
+        return root;
+    }
+
+    /*
+     * Returns the changelog file and all files included by it.
+     */
+    private List<String> getFiles(DatabaseChangeLog dbChangeLog, Collection<ChangeSet> changeSets) {
+        Set<String> files = new LinkedHashSet<>();
+        files.add(getFile(dbChangeLog));
+        changeSets.forEach(cs -> addFiles(files, cs));
+        return new ArrayList<>(files);
+    }
+
+    private void addFiles(Set<String> files, ChangeSet cs) {
+        // included changelogs could contains only other include
+        for (DatabaseChangeLog changeLog = cs.getChangeLog(); changeLog != null; changeLog = changeLog.getParentChangeLog()) {
+            if (!files.add(getFile(changeLog))) {
+                break;
+            }
+        }
+    }
+
+    private String getFile(DatabaseChangeLog changeLog) {
+        return new File(getRoot(), changeLog.getPhysicalFilePath()).getAbsolutePath();
+    }
+
+    /*
+     * Returns the changelogs to parse and validate, when includes are followed
+     * changelogs included by other ones are parsed only as part of them.
+     */
+    private String[] getChangeLogsToValidate(ResourceAccessor resourceAccessor) throws MojoExecutionException {
+        String[] changeLogs = getChangeLogs();
+        File graphFile = useCache && cacheDirectory != null ? new File(cacheDirectory, "include-graph.idx") : null;
+        try {
+            IncludeGraph previous = graphFile != null ? IncludeGraph.load(source, graphFile) : null;
+            IncludeGraph graph = IncludeGraph.build(source, changeLogs, resourceAccessor, previous);
+            if (graphFile != null) {
+                storeIncludeGraph(graph, graphFile);
+            }
+            includeGraph = graph;
+
+            List<String> result;
+            if (followIncludes) {
+                result = graph.getRoots();
+                getLog().debug(result.size() + " of " + changeLogs.length + " changelogs are not included by others");
+            } else {
+                // included changelogs are validated before the changelog that includes them, as Liquibase applies them
+                result = graph.getExecutionOrder();
             }
-            if (failOnError) {
-                throw new MojoFailureException("There are violations on changelogs");
+            if (changedFiles != null) {
+                // changelogs after the last changed one are not needed to validate it
+                result = result.subList(0, getLastChanged(graph, result) + 1);
+            }
+            return result.toArray(new String[result.size()]);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unexpected excetion", e);
+        }
+    }
+
+    private int getLastChanged(IncludeGraph graph, List<String> changeLogs) {
+        Path root = Paths.get(normalize(source.getPath()));
+        Set<String> changed = changedFiles.stream() //
+                .map(file -> root.relativize(Paths.get(file)).toString()) //
+                .collect(Collectors.toSet());
+        for (int i = changeLogs.size() - 1; i >= 0; i--) {
+            String changeLog = changeLogs.get(i);
+            if (changed.contains(changeLog) || !Collections.disjoint(changed, graph.getAllIncludes(changeLog))) {
+                return i;
             }
         }
+        return -1;
+    }
+
+    private void storeIncludeGraph(IncludeGraph graph, File graphFile) {
+        try {
+            graph.store(graphFile);
+        } catch (IOException e) {
+            getLog().warn("Could not store the include graph " + graphFile + ": " + e.getMessage());
+        }
+    }
+
+    private ValidationCache newValidationCache() {
+        if (!useCache || cacheDirectory == null) {
+            return null;
+        }
+        // any change to plugin or configuration invalidates all cached results
+        String salt = HashUtil.hash(pluginVersion, source.getAbsolutePath(), extension, Arrays.toString(getIncludes()), //
+                Arrays.toString(excludes), new TreeSet<>(Arrays.asList(getIncludeChanges())), //
+                new TreeSet<>(Arrays.asList(getExcludeChanges())), new TreeSet<>(getIgnoreRules()), //
+                new TreeSet<>(getSkipChangeSets()), new TreeMap<>(configMap), issuePattern, //
+                useArtifactId ? project.getArtifactId() : null, followIncludes, validateFrom, //
+                changedFiles != null ? new TreeSet<>(changedFiles) : null);
+        ValidationCache cache = new ValidationCache(new File(cacheDirectory, "validation.cache"), salt);
+        cache.load();
+        return cache;
+    }
+
+    /*
+     * Liquibase enters a process wide scope to parse an includeAll, so
+     * changelogs that could include others are never parsed in parallel.
+     */
+    private boolean isParsedAlone(String changeLog) {
+        String ext = FileUtils.getExtension(changeLog);
+        if (Extension.sql.name().equals(ext)) {
+            // formatted SQL changelogs can not include others
+            return false;
+        }
+        // includes are known only for XML changelogs
+        return !Extension.xml.name().equals(ext) || !includeGraph.getIncludes(changeLog).isEmpty() || includeGraph.isDynamic(changeLog);
+    }
+
+    private int getPoolSize() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
     }
 
     /*
-     * for test purpose.
+     * for test purpose, returns where record all issues. By default issues are
+     * not retained.
      */
     /*package*/ List<ValidationError> newIssueContainer() {
-        return new LinkedList<>();
+        return null; // NOSONAR
     }
 
     private boolean skipChangeSet(ChangeSet cs) {
@@ -242,22 +803,14 @@ public class ValidateMojo extends AbstractMojo {
         return false;
     }
 
-    private void printIssue(ValidationError issue) {
-        if (issue.getChangeSetId() != null) {
-            if (issue.getElement() != null) {
-                printViolation(MessageFormat.format("ChangeSet {0}, element {1} has a violation: {2}", issue.getChangeSetId(), issue.getElement(), issue.getMessage()));
-            } else {
-                printViolation(MessageFormat.format("ChangeSet {0}, has a violation: {1}", issue.getChangeSetId(), issue.getMessage()));
-            }
-        } else {
-            printViolation(MessageFormat.format("ChangeLog {0} has a violation: {1}", issue.getFile(), issue.getMessage()));
-        }
-    }
-
     protected IChangeSetValidator newChangeSetValidator(ChangeSet changeSet) {
         return validationFactory.newChangeSetValidator(changeSet);
     }
 
+    protected void replay(ChangeSet changeSet) {
+        validationFactory.replay(changeSet);
+    }
+
     protected IChangeValidator newValidator(Change change) {
         return validationFactory.newValidator(change);
     }
@@ -273,35 +826,6 @@ public class ValidateMojo extends AbstractMojo {
         return changeLogs;
     }
 
-    private void printViolation(String message) {
-        if (failOnError) {
-            getLog().error(message);
-        } else {
-            getLog().warn(message);
-        }
-    }
-
-    private Map<String, List<ValidationError>> buildIssuesByFile(Collection<ValidationError> issues) {
-        Map<String, List<ValidationError>> issuesMap = new HashMap<>();
-        for (ValidationError issue : issues) {
-            String key = issue.getFile();
-            if (issuesMap.get(key) == null) {
-                List<ValidationError> issuesList = new LinkedList<>();
-                issuesList.add(issue);
-                issuesMap.put(key, issuesList);
-            } else {
-                issuesMap.get(key).add(issue);
-            }
-        }
-        return issuesMap;
-    }
-
-    protected boolean skip(Class<?> clazz) {
-        Validator annotation = clazz.getDeclaredAnnotation(Validator.class);
-        String ruleName = annotation != null ? annotation.name() : null;
-        return ruleName != null && getIgnoreRules().contains(ruleName);
-    }
-
     private String[] getIncludes() {
         if (includes != null && includes.length > 0) {
             return includes; // NOSONAR
@@ -409,6 +933,78 @@ public class ValidateMojo extends AbstractMojo {
         this.ignoreRules = (ignoreRules == null ? new ArrayList<String>() : ignoreRules);
     }
 
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public boolean isFollowIncludes() {
+        return followIncludes;
+    }
+
+    public void setFollowIncludes(boolean followIncludes) {
+        this.followIncludes = followIncludes;
+    }
+
+    public boolean isUseCache() {
+        return useCache;
+    }
+
+    public void setUseCache(boolean useCache) {
+        this.useCache = useCache;
+    }
+
+    public File getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    public void setCacheDirectory(File cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    public String getValidateFrom() {
+        return validateFrom;
+    }
+
+    public void setValidateFrom(String validateFrom) {
+        this.validateFrom = validateFrom;
+    }
+
+    public String getChangedSince() {
+        return changedSince;
+    }
+
+    public void setChangedSince(String changedSince) {
+        this.changedSince = changedSince;
+    }
+
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    public void setFailFast(boolean failFast) {
+        this.failFast = failFast;
+    }
+
+    public int getMaxIssues() {
+        return maxIssues;
+    }
+
+    public void setMaxIssues(int maxIssues) {
+        this.maxIssues = maxIssues;
+    }
+
+    public long getStreamingThreshold() {
+        return streamingThreshold;
+    }
+
+    public void setStreamingThreshold(long streamingThreshold) {
+        this.streamingThreshold = streamingThreshold;
+    }
+
     public boolean isSkip() {
         return skip;
     }
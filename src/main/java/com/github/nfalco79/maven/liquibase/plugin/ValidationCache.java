@@ -0,0 +1,311 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.github.nfalco79.maven.liquibase.plugin.util.HashUtil;
+import com.github.nfalco79.maven.liquibase.plugin.validator.ValidationError;
+
+/**
+ * Persistent cache of the validation issues found on each changelog.
+ * <p>
+ * Each entry is bound to a key built from the content of all files that
+ * contributes to the changelog (included files too), the key of the previous
+ * changelog and a salt that identifies the plugin version and the mojo
+ * configuration. Since the storage is built replaying changelogs in order,
+ * the key of the previous changelog is a fingerprint of the storage state
+ * upstream the changelog.
+ *
+ * @author Nikolas Falco
+ */
+public class ValidationCache {
+
+    private static final int FORMAT_VERSION = 2;
+    private static final String SNAPSHOT_EXTENSION = ".snapshot";
+
+    /**
+     * Cached validation result of a changelog.
+     */
+    public static class Entry {
+        private final String key;
+        private final List<String> files;
+        private final List<ValidationError> issues;
+        private final boolean beforeMarker;
+
+        public Entry(String key, List<String> files, List<ValidationError> issues) {
+            this(key, files, issues, false);
+        }
+
+        public Entry(String key, List<String> files, List<ValidationError> issues, boolean beforeMarker) {
+            this.key = key;
+            this.files = files;
+            this.issues = issues;
+            this.beforeMarker = beforeMarker;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Returns the absolute path of all files that contributes to the
+         * changelog.
+         *
+         * @return list of absolute file paths
+         */
+        public List<String> getFiles() {
+            return Collections.unmodifiableList(files);
+        }
+
+        public List<ValidationError> getIssues() {
+            return Collections.unmodifiableList(issues);
+        }
+
+        /**
+         * Returns if the changeset marker from which validate has not been
+         * found yet at the end of the changelog.
+         *
+         * @return {@code true} if following changesets are only replayed
+         */
+        public boolean isBeforeMarker() {
+            return beforeMarker;
+        }
+    }
+
+    private final File file;
+    private final String salt;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * Default constructor.
+     *
+     * @param file
+     *            where the cache is persisted
+     * @param salt
+     *            identifies the plugin version and configuration, entries
+     *            stored with a different salt are discarded
+     */
+    public ValidationCache(File file, String salt) {
+        this.file = file;
+        this.salt = salt;
+    }
+
+    /**
+     * Loads the cache entries from the file. A missing or unreadable file
+     * results in an empty cache.
+     */
+    public void load() {
+        entries.clear();
+        if (!file.isFile()) {
+            return;
+        }
+
+        try (DataInputStream is = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (is.readInt() != FORMAT_VERSION || !salt.equals(is.readUTF())) {
+                return;
+            }
+            int size = is.readInt();
+            for (int i = 0; i < size; i++) {
+                String changeLog = is.readUTF();
+                String key = is.readUTF();
+                int filesSize = is.readInt();
+                List<String> files = new ArrayList<>(filesSize);
+                for (int j = 0; j < filesSize; j++) {
+                    files.add(is.readUTF());
+                }
+                int issuesSize = is.readInt();
+                List<ValidationError> issues = new ArrayList<>(issuesSize);
+                for (int j = 0; j < issuesSize; j++) {
+                    issues.add(new ValidationError() //
+                            .setFile(readString(is)) //
+                            .setElement(readString(is)) //
+                            .setAttribute(readString(is)) //
+                            .setMessage(readString(is)) //
+                            .setChangeSetId(readString(is)) //
+                            .setChangeSetAuthor(readString(is)));
+                }
+                entries.put(changeLog, new Entry(key, files, issues, is.readBoolean()));
+            }
+        } catch (IOException e) {
+            // corrupted cache, all changelogs will be validated again
+            entries.clear();
+        }
+    }
+
+    /**
+     * Stores all entries to the file.
+     *
+     * @throws IOException
+     *             in case of failure writing the file
+     */
+    public void store() throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(parent.toPath());
+        File tmpFile = File.createTempFile(file.getName(), ".tmp", parent);
+        try {
+            try (DataOutputStream os = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile.toPath())))) {
+                os.writeInt(FORMAT_VERSION);
+                os.writeUTF(salt);
+                os.writeInt(entries.size());
+                for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+                    Entry entry = mapEntry.getValue();
+                    os.writeUTF(mapEntry.getKey());
+                    os.writeUTF(entry.key);
+                    os.writeInt(entry.files.size());
+                    for (String f : entry.files) {
+                        os.writeUTF(f);
+                    }
+                    os.writeInt(entry.issues.size());
+                    for (ValidationError issue : entry.issues) {
+                        writeString(os, issue.getFile());
+                        writeString(os, issue.getElement());
+                        writeString(os, issue.getAttribute());
+                        writeString(os, issue.getMessage());
+                        writeString(os, issue.getChangeSetId());
+                        writeString(os, issue.getChangeSetAuthor());
+                    }
+                    os.writeBoolean(entry.beforeMarker);
+                }
+            }
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+    }
+
+    /**
+     * Returns the cached entry of the given changelog.
+     *
+     * @param changeLog
+     *            the changelog path relative to the source folder
+     * @return the cached entry, {@code null} otherwise
+     */
+    public Entry get(String changeLog) {
+        return entries.get(changeLog);
+    }
+
+    /**
+     * Replaces the cached entry of the given changelog.
+     *
+     * @param changeLog
+     *            the changelog path relative to the source folder
+     * @param entry
+     *            the validation result
+     */
+    public void put(String changeLog, Entry entry) {
+        entries.put(changeLog, entry);
+    }
+
+    /**
+     * Removes the entries of changelogs that are not in the given collection
+     * and the snapshots that can not be restored anymore.
+     *
+     * @param changeLogs
+     *            the changelog paths relative to the source folder to keep
+     * @param reachable
+     *            the keys of the changelogs whose snapshot could be restored
+     *            by a next validation
+     * @throws IOException
+     *             in case of failure deleting an outdated snapshot
+     */
+    public void retain(Collection<String> changeLogs, Collection<String> reachable) throws IOException {
+        entries.keySet().retainAll(changeLogs);
+
+        File[] snapshots = getSnapshotDirectory().listFiles();
+        if (snapshots != null) {
+            for (File snapshot : snapshots) {
+                if (!reachable.contains(StringUtils.removeEnd(snapshot.getName(), SNAPSHOT_EXTENSION))) {
+                    Files.deleteIfExists(snapshot.toPath());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the file where is stored the snapshot of the validation state
+     * after the changelog with the given key has been validated.
+     *
+     * @param key
+     *            the key of a changelog
+     * @return the snapshot file, it could not exists
+     */
+    public File getSnapshot(String key) {
+        return new File(getSnapshotDirectory(), key + SNAPSHOT_EXTENSION);
+    }
+
+    private File getSnapshotDirectory() {
+        return new File(file.getAbsoluteFile().getParentFile(), "snapshots");
+    }
+
+    /**
+     * Builds the key of a changelog.
+     *
+     * @param upstream
+     *            the key of the previous validated changelog
+     * @param changeLog
+     *            the changelog path relative to the source folder
+     * @param files
+     *            the absolute path of all files that contributes to the
+     *            changelog
+     * @return the key or {@code null} if some file does not exists anymore
+     * @throws IOException
+     *             in case of failure reading files
+     */
+    public String newKey(String upstream, String changeLog, Collection<String> files) throws IOException {
+        MessageDigest digest = HashUtil.newDigest();
+        HashUtil.update(digest, salt);
+        HashUtil.update(digest, upstream);
+        HashUtil.update(digest, changeLog);
+        byte[] buffer = new byte[8192];
+        for (String path : files) {
+            File f = new File(path); // NOSONAR
+            if (!f.isFile()) {
+                return null;
+            }
+            HashUtil.update(digest, path);
+            HashUtil.update(digest, f, buffer);
+        }
+        return HashUtil.toHex(digest);
+    }
+
+    private static String readString(DataInputStream is) throws IOException {
+        return is.readBoolean() ? is.readUTF() : null;
+    }
+
+    private static void writeString(DataOutputStream os, String value) throws IOException {
+        os.writeBoolean(value != null);
+        if (value != null) {
+            os.writeUTF(value);
+        }
+    }
+}
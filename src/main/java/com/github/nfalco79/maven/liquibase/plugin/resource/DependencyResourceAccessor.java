@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin.resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.resource.Resource;
+
+/**
+ * Resource accessor that gives access to the scripts of dependency artifacts,
+ * jars or folders, without extracting them.
+ * <p>
+ * Artifacts are given in dependency order. When more artifacts contain the
+ * same resource, the one of the last artifact is returned, as it happens when
+ * scripts are extracted in the same folder following the dependency order.
+ *
+ * @author Nikolas Falco
+ */
+public class DependencyResourceAccessor extends ClassLoaderResourceAccessor {
+
+    private final URLClassLoader classLoader;
+
+    /**
+     * Default constructor.
+     *
+     * @param artifactFiles
+     *            the artifact files in dependency order
+     * @throws MalformedURLException
+     *             if a file could not be converted to an URL
+     */
+    public DependencyResourceAccessor(List<File> artifactFiles) throws MalformedURLException {
+        this(newClassLoader(artifactFiles));
+    }
+
+    private DependencyResourceAccessor(URLClassLoader classLoader) {
+        super(classLoader);
+        this.classLoader = classLoader;
+    }
+
+    private static URLClassLoader newClassLoader(List<File> artifactFiles) throws MalformedURLException {
+        // last artifacts take precedence
+        URL[] urls = new URL[artifactFiles.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[urls.length - 1 - i] = artifactFiles.get(i).toURI().toURL();
+        }
+        // plugin classpath resources are not visible
+        return new URLClassLoader(urls, null);
+    }
+
+    @Override
+    public List<Resource> getAll(String path) throws IOException {
+        List<Resource> resources = super.getAll(path);
+        // resources of previous artifacts are shadowed
+        return resources != null && resources.size() > 1 ? resources.subList(0, 1) : resources;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) { // NOSONAR
+            throw new IOException(e);
+        } finally {
+            classLoader.close();
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin.resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import liquibase.resource.AbstractResource;
+import liquibase.resource.AbstractResourceAccessor;
+import liquibase.resource.Resource;
+
+/**
+ * Resource accessor that gives access to scripts held in memory.
+ * <p>
+ * Scripts are identified by a path relative to the root of the artifact that
+ * contains them, as they would be classpath resources. Adding a script with
+ * the same path of an existing one replaces it.
+ *
+ * @author Nikolas Falco
+ */
+public class MemoryResourceAccessor extends AbstractResourceAccessor {
+
+    private static final String SCHEME = "memory";
+
+    private final Map<String, byte[]> scripts = new ConcurrentHashMap<>();
+
+    /**
+     * Adds or replaces a script.
+     *
+     * @param path
+     *            the script path
+     * @param content
+     *            the script content
+     */
+    public void put(String path, byte[] content) {
+        scripts.put(normalize(path), content);
+    }
+
+    @Override
+    public List<Resource> getAll(String path) throws IOException {
+        Resource resource = newResource(normalize(path));
+        return resource.exists() ? Collections.singletonList(resource) : Collections.emptyList();
+    }
+
+    @Override
+    public List<Resource> search(String path, boolean recursive) throws IOException {
+        String folder = normalize(path);
+        String prefix = folder.isEmpty() ? "" : folder + "/";
+        return scripts.keySet().stream() //
+                .filter(p -> p.startsWith(prefix) && (recursive || p.indexOf('/', prefix.length()) == -1)) //
+                .sorted() //
+                .map(this::newResource) //
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<String> describeLocations() {
+        return Collections.singletonList(SCHEME + ":");
+    }
+
+    @Override
+    public void close() {
+        scripts.clear();
+    }
+
+    private String normalize(String path) {
+        String normalized = FilenameUtils.normalize(StringUtils.removeStart(path.replace('\\', '/'), "classpath:"), true);
+        return StringUtils.strip(StringUtils.defaultString(normalized), "/");
+    }
+
+    private Resource newResource(String path) {
+        return new MemoryResource(path);
+    }
+
+    private class MemoryResource extends AbstractResource {
+
+        MemoryResource(String path) {
+            super(path, toURI(path));
+        }
+
+        @Override
+        public InputStream openInputStream() throws IOException {
+            byte[] content = scripts.get(getPath());
+            if (content == null) {
+                throw new FileNotFoundException(getPath());
+            }
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public boolean exists() {
+            return scripts.containsKey(getPath());
+        }
+
+        @Override
+        public Resource resolve(String other) {
+            return newResource(normalize(resolvePath(other)));
+        }
+
+        @Override
+        public Resource resolveSibling(String other) {
+            return newResource(normalize(resolveSiblingPath(other)));
+        }
+    }
+
+    private static URI toURI(String path) {
+        try {
+            return new URI(SCHEME, null, "/" + path, null);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(path, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + " (" + scripts.size() + " scripts)";
+    }
+
+}
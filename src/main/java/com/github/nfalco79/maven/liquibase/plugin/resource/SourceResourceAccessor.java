@@ -0,0 +1,140 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin.resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import liquibase.resource.AbstractResourceAccessor;
+import liquibase.resource.PathResource;
+import liquibase.resource.Resource;
+
+/**
+ * Resource accessor that gives access only to the files of a source folder.
+ * <p>
+ * Resources are identified by their path relative to the filesystem root, the
+ * same path that a {@link liquibase.resource.DirectoryResourceAccessor} on the
+ * filesystem root would return, so changelog physical paths stay absolute. A
+ * path that is not under the source folder is resolved relative to the source
+ * folder as it would be a classpath resource.
+ * <p>
+ * Lookups and folder listings are cached, so this accessor is meant to be
+ * shared between all changelogs parsed during a single build, also by
+ * multiple threads.
+ *
+ * @author Nikolas Falco
+ */
+public class SourceResourceAccessor extends AbstractResourceAccessor {
+
+    private final Path source;
+    private final Path root;
+    private final Map<String, List<Resource>> resources = new ConcurrentHashMap<>();
+    private final Map<String, List<Resource>> listings = new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor.
+     *
+     * @param source
+     *            the folder that contains all changelogs
+     */
+    public SourceResourceAccessor(File source) {
+        this.source = source.getAbsoluteFile().toPath().normalize();
+        this.root = this.source.getRoot();
+    }
+
+    @Override
+    public List<Resource> getAll(String path) throws IOException {
+        List<Resource> result = resources.get(path);
+        if (result == null) {
+            Path file = resolve(path);
+            if (file != null && Files.isRegularFile(file)) {
+                result = Collections.singletonList(newResource(file));
+            } else {
+                result = Collections.emptyList();
+            }
+            resources.put(path, result);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Resource> search(String path, boolean recursive) throws IOException {
+        String key = recursive + ":" + path;
+        List<Resource> result = listings.get(key);
+        if (result == null) {
+            Path folder = resolve(path);
+            if (folder != null && Files.isDirectory(folder)) {
+                try (Stream<Path> files = Files.walk(folder, recursive ? Integer.MAX_VALUE : 1)) {
+                    result = files.filter(Files::isRegularFile) //
+                            .sorted(Comparator.comparing(Path::toString)) //
+                            .map(this::newResource) //
+                            .collect(Collectors.toList());
+                }
+            } else {
+                result = Collections.emptyList();
+            }
+            listings.put(key, result);
+        }
+        return result;
+    }
+
+    @Override
+    public List<String> describeLocations() {
+        return Collections.singletonList(source.toString());
+    }
+
+    @Override
+    public void close() {
+        resources.clear();
+        listings.clear();
+    }
+
+    private Path resolve(String path) {
+        Path file;
+        try {
+            file = Paths.get(path.replace('\\', '/'));
+        } catch (InvalidPathException e) {
+            return null;
+        }
+        if (!file.isAbsolute()) {
+            Path rootRelative = root.resolve(file).normalize();
+            file = rootRelative.startsWith(source) ? rootRelative : source.resolve(file);
+        }
+        file = file.normalize();
+        return file.startsWith(source) ? file : null;
+    }
+
+    private Resource newResource(Path file) {
+        return new PathResource(root.relativize(file).toString().replace('\\', '/'), file);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + " (" + source + ")";
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Utility class to build SHA-256 hashes of files and values.
+ *
+ * @author Nikolas Falco
+ */
+public final class HashUtil {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private HashUtil() {
+    }
+
+    /**
+     * Builds an hash of the content of the given file.
+     *
+     * @param file
+     *            to digest
+     * @return the hash of the file content
+     * @throws IOException
+     *             in case of failure reading the file
+     */
+    public static String hash(File file) throws IOException {
+        MessageDigest digest = newDigest();
+        update(digest, file, new byte[BUFFER_SIZE]);
+        return toHex(digest);
+    }
+
+    /**
+     * Builds an hash of the given values.
+     *
+     * @param values
+     *            to digest
+     * @return the hash of values
+     */
+    public static String hash(Object... values) {
+        MessageDigest digest = newDigest();
+        for (Object value : values) {
+            update(digest, String.valueOf(value));
+        }
+        return toHex(digest);
+    }
+
+    /**
+     * Returns a new SHA-256 digest.
+     *
+     * @return the message digest
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is mandatory for every Java platform
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Updates the digest with the given value prefixed by its length, so that
+     * adjacent values do not collide.
+     *
+     * @param digest
+     *            to update
+     * @param value
+     *            to digest
+     */
+    public static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    /**
+     * Updates the digest with the content of the given file.
+     *
+     * @param digest
+     *            to update
+     * @param file
+     *            to digest
+     * @param buffer
+     *            used to read the file
+     * @throws IOException
+     *             in case of failure reading the file
+     */
+    public static void update(MessageDigest digest, File file, byte[] buffer) throws IOException {
+        try (InputStream is = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+    }
+
+    /**
+     * Completes the digest and returns the hash as hexadecimal string.
+     *
+     * @param digest
+     *            to complete
+     * @return the hexadecimal hash
+     */
+    public static String toHex(MessageDigest digest) {
+        byte[] bytes = digest.digest();
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+}
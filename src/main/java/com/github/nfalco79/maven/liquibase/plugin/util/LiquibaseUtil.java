@@ -17,7 +17,7 @@ package com.github.nfalco79.maven.liquibase.plugin.util;
 
 import com.github.nfalco79.maven.liquibase.plugin.validator.ValidationContext;
 import com.github.nfalco79.maven.liquibase.plugin.validator.ValidationError;
-import com.github.nfalco79.maven.liquibase.plugin.validator.Validator;
+import com.github.nfalco79.maven.liquibase.plugin.validator.ValidatorMetadata;
 
 import liquibase.change.Change;
 import liquibase.change.DatabaseChange;
@@ -49,8 +49,8 @@ public final class LiquibaseUtil {
      * @return the name of the validator
      */
     public static String getValidatorName(Class<?> class1) {
-        Validator annotation = class1.getAnnotation(Validator.class);
-        return annotation != null ? annotation.name() : "no element";
+        ValidatorMetadata metadata = ValidatorMetadata.of(class1);
+        return metadata.isAnnotated() ? metadata.getName() : "no element";
     }
 
     public static ValidationError createIssue(Change change, String attribute, String message) {
@@ -15,8 +15,14 @@
  */
 package com.github.nfalco79.maven.liquibase.plugin.util;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.codehaus.plexus.util.ReflectionUtils;
 
@@ -29,12 +35,21 @@ import com.github.nfalco79.maven.liquibase.plugin.validator.ChangeValidationExce
  */
 public final class ReflectionUtil {
 
+    // all accessors are adapted to this type to be invoked exactly
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    // marker for fields that does not exist in a class
+    private static final MethodHandle MISSING_FIELD = MethodHandles.dropArguments(MethodHandles.constant(Object.class, null), 0, Object.class);
+    private static final Map<Class<?>, Map<String, MethodHandle>> ACCESSORS = new ConcurrentHashMap<>();
+
     private ReflectionUtil() {
     }
 
     /**
      * Returns the value of the field on the specified object, given the field's
      * name.
+     * <p>
+     * The accessor of the field is resolved once for each class and field name,
+     * also missing fields are remembered.
      * 
      * @param fieldName
      *            the field name for which extract its value by reflection
@@ -43,21 +58,55 @@ public final class ReflectionUtil {
      * @return the value for the specified field
      */
     public static Object getFieldValue(String fieldName, Object obj) {
-        String value = null;
-        if (obj != null) {
-            try {
-                Field field = ReflectionUtils.getFieldByNameIncludingSuperclasses(fieldName, obj.getClass());
-                if (field != null) {
-                    field.setAccessible(true);
-                    return field.get(obj);
-                }
-                return null;
-            } catch (IllegalAccessException e) {
-                throw new ChangeValidationException(e);
-            }
+        if (obj == null) {
+            return null;
         }
 
-        return value;
+        MethodHandle getter = getFieldAccessor(obj.getClass(), fieldName);
+        if (getter == MISSING_FIELD) {
+            return null;
+        }
+        try {
+            return (Object) getter.invokeExact(obj);
+        } catch (Throwable e) { // NOSONAR
+            throw new ChangeValidationException(e);
+        }
+    }
+
+    /**
+     * Returns if the given class has a field with the given name, declared in
+     * the class or in any of its superclasses.
+     *
+     * @param type
+     *            the class to inspect
+     * @param fieldName
+     *            the field name
+     * @return {@code true} if the field exists, {@code false} otherwise
+     */
+    public static boolean hasField(Class<?> type, String fieldName) {
+        return getFieldAccessor(type, fieldName) != MISSING_FIELD;
+    }
+
+    private static MethodHandle getFieldAccessor(Class<?> type, String fieldName) {
+        return ACCESSORS.computeIfAbsent(type, t -> new ConcurrentHashMap<>()) //
+                .computeIfAbsent(fieldName, name -> newFieldAccessor(type, name));
+    }
+
+    private static MethodHandle newFieldAccessor(Class<?> type, String fieldName) {
+        Field field = ReflectionUtils.getFieldByNameIncludingSuperclasses(fieldName, type);
+        if (field == null) {
+            return MISSING_FIELD;
+        }
+        try {
+            field.setAccessible(true); // NOSONAR
+            MethodHandle getter = MethodHandles.lookup().unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            }
+            return getter.asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new ChangeValidationException(e);
+        }
     }
 
     /**
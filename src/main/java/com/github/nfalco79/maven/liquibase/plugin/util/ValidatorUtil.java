@@ -15,14 +15,9 @@
  */
 package com.github.nfalco79.maven.liquibase.plugin.util;
 
-import java.lang.reflect.Field;
-import java.security.AccessController;
-import java.security.PrivilegedActionException;
-import java.security.PrivilegedExceptionAction;
 import java.util.Map;
 
-import org.codehaus.plexus.component.annotations.Configuration;
-import org.codehaus.plexus.util.ReflectionUtils;
+import com.github.nfalco79.maven.liquibase.plugin.validator.ValidatorMetadata;
 
 /**
  * Utility class for validators.
@@ -44,27 +39,6 @@ public final class ValidatorUtil {
      *            the configMap passed
      */
     public static void configure(Object validator, Map<String, String> parameters) {
-        Class<?> validatorClass = validator.getClass();
-        String validatorName = LiquibaseUtil.getValidatorName(validatorClass);
-        for (Field f : ReflectionUtils.getFieldsIncludingSuperclasses(validatorClass)) {
-            Configuration configAnnotation = f.getAnnotation(Configuration.class);
-            if (configAnnotation != null) {
-                String key = validatorName + "." + configAnnotation.value();
-                if (parameters.containsKey(key)) {
-                    try {
-                        AccessController.doPrivileged(new PrivilegedExceptionAction<Void>() {
-                            @Override
-                            public Void run() throws Exception {
-                                f.setAccessible(true);
-                                f.set(validator, parameters.get(key));
-                                return null;
-                            }
-                        });
-                    } catch (PrivilegedActionException e) { // NOSONAR
-                        throw new IllegalStateException("Can not configure validator " + validatorName + " with key " + key);
-                    }
-                }
-            }
-        }
+        ValidatorMetadata.of(validator.getClass()).configure(validator, parameters);
     }
 }
@@ -26,8 +26,6 @@ import org.apache.commons.lang3.StringUtils;
 import com.github.nfalco79.maven.liquibase.plugin.util.LiquibaseUtil;
 import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ChangeStorage;
 import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ColumnInfo;
-import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ColumnKey;
-import com.github.nfalco79.maven.liquibase.plugin.validator.listener.IStorageInfo;
 
 import liquibase.change.Change;
 import liquibase.change.core.AddUniqueConstraintChange;
@@ -62,8 +60,8 @@ public class AddUniqueConstraintValidator implements IChangeValidator {
 
             // Iterate over the columns involved in addUniqueConstraint
             for (String colName : uniqueConstraintCols) {
-                IStorageInfo col = storage.get(new ColumnKey(tableName, colName));
-                if (col != null && ((ColumnInfo) col.getValue()).isNullable()) {
+                ColumnInfo col = storage.getColumn(tableName, colName);
+                if (col != null && col.isNullable()) {
                     nullableColumns.add(colName);
                 }
             }
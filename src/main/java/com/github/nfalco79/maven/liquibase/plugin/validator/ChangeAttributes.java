@@ -0,0 +1,104 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin.validator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import com.github.nfalco79.maven.liquibase.plugin.util.ReflectionUtil;
+
+import liquibase.change.Change;
+import liquibase.change.ChangeMetaData;
+
+/**
+ * Table of attributes available on a change class.
+ * <p>
+ * The table is built once per class from the Liquibase {@link ChangeMetaData}
+ * of the change, keeping only parameters that can be read as field. When the
+ * metadata are not available the field existence is used instead.
+ */
+public final class ChangeAttributes {
+
+    private static final Map<Class<?>, ChangeAttributes> REGISTRY = new ConcurrentHashMap<>();
+
+    private final Class<?> type;
+    private final Set<String> names;
+    private final Map<List<String>, String[]> retained = new ConcurrentHashMap<>();
+
+    private ChangeAttributes(Change change) {
+        this.type = change.getClass();
+        this.names = readMetaData(change);
+    }
+
+    private Set<String> readMetaData(Change change) {
+        try {
+            ChangeMetaData metaData = change.createChangeMetaData();
+            if (metaData != null && metaData.getParameters() != null) {
+                return Collections.unmodifiableSet(metaData.getParameters().keySet().stream() //
+                        .filter(name -> ReflectionUtil.hasField(type, name)) //
+                        .collect(Collectors.toSet()));
+            }
+        } catch (RuntimeException e) { // NOSONAR
+            // metadata are not available for this change, for example a custom change
+        }
+        return null;
+    }
+
+    /**
+     * Returns the attribute table of the class of the given change.
+     *
+     * @param change
+     *            the change
+     * @return the attribute table for the change class
+     */
+    public static ChangeAttributes of(Change change) {
+        return REGISTRY.computeIfAbsent(change.getClass(), c -> new ChangeAttributes(change));
+    }
+
+    /**
+     * Returns if the change class has the given attribute.
+     *
+     * @param name
+     *            the attribute name
+     * @return {@code true} if the attribute exists, {@code false} otherwise
+     */
+    public boolean contains(String name) {
+        return names != null ? names.contains(name) : ReflectionUtil.hasField(type, name);
+    }
+
+    /**
+     * Returns the given attribute names that exist on the change class,
+     * preserving their order.
+     * <p>
+     * The result is computed once for each list of attribute names and shared
+     * between callers, it must not be modified.
+     *
+     * @param attributes
+     *            the attribute names
+     * @return the existing attribute names
+     */
+    public String[] retain(String... attributes) {
+        return retained.computeIfAbsent(Arrays.asList(attributes), list -> list.stream() //
+                .filter(this::contains) //
+                .toArray(String[]::new));
+    }
+
+}
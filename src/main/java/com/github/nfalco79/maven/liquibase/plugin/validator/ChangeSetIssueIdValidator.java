@@ -32,8 +32,8 @@ import liquibase.changelog.ChangeSet;
 public class ChangeSetIssueIdValidator implements IChangeSetValidator {
 
     private static final String PROGESSIVE_PATTERN = "-\\d+$";
-    private Pattern issuePattern;
-    private Pattern progressivePattern;
+    private final Pattern issuePattern;
+    private final Pattern progressivePattern;
 
     /**
      * Constructs an instance of this class.
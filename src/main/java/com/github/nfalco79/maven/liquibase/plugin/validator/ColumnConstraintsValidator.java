@@ -19,7 +19,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Optional;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -27,7 +26,6 @@ import com.github.nfalco79.maven.liquibase.plugin.util.LiquibaseUtil;
 import com.github.nfalco79.maven.liquibase.plugin.util.StringUtil;
 import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ChangeStorage;
 import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ColumnInfo;
-import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ColumnKey;
 import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ConstraintInfo;
 
 import liquibase.change.Change;
@@ -58,9 +56,9 @@ public class ColumnConstraintsValidator implements IChangeValidator {
             String newColumnName = renameColumn.getNewColumnName();
             String oldColumnName = renameColumn.getOldColumnName();
 
-            Optional<ColumnInfo> colInfo = storage.filterBy(ColumnInfo.class, new ColumnKey(tableName, newColumnName)).findFirst();
-            if (colInfo.isPresent()) {
-                List<ConstraintInfo> consInfo = colInfo.get().getConstraints();
+            ColumnInfo colInfo = storage.getColumn(tableName, newColumnName);
+            if (colInfo != null) {
+                List<ConstraintInfo> consInfo = colInfo.getConstraints();
                 if (!consInfo.isEmpty()) {
                     String message = "Can not rename column " + tableName + "." + oldColumnName
                             + " because is referred by " + StringUtils.join(consInfo, ", ")
@@ -73,10 +71,10 @@ public class ColumnConstraintsValidator implements IChangeValidator {
             String tableName = modifyDataType.getTableName();
             String columnName = modifyDataType.getColumnName();
 
-            Optional<ColumnInfo> colInfo = storage.filterBy(ColumnInfo.class, new ColumnKey(tableName, columnName)).findFirst();
-            if (colInfo.isPresent()) {
-                List<ConstraintInfo> consInfo = colInfo.get().getConstraints();
-                String colOldType = colInfo.get().getOldType();
+            ColumnInfo colInfo = storage.getColumn(tableName, columnName);
+            if (colInfo != null) {
+                List<ConstraintInfo> consInfo = colInfo.getConstraints();
+                String colOldType = colInfo.getOldType();
                 String newDataType = StringUtil.removeParam(modifyDataType.getNewDataType());
                 if (!consInfo.isEmpty() && !colOldType.equalsIgnoreCase(newDataType)) {
                     String message = "Can not modify column type " + tableName + "." + columnName
@@ -20,6 +20,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import liquibase.changelog.ChangeSet;
 
@@ -29,6 +30,8 @@ import liquibase.changelog.ChangeSet;
 public class CompositeChangeSetValidator implements IChangeSetValidator {
 
     private final Collection<IChangeSetValidator> validators;
+    private final Collection<IChangeSetValidator> activeValidators;
+    private final Collection<IChangeSetValidator> statefulValidators;
     private final Set<String> ignoreRules;
 
     /**
@@ -42,20 +45,39 @@ public class CompositeChangeSetValidator implements IChangeSetValidator {
     public CompositeChangeSetValidator(Collection<IChangeSetValidator> validators, Set<String> ignoreRules) {
         this.validators = Collections.unmodifiableCollection(validators);
         this.ignoreRules = (ignoreRules == null ? Collections.emptySet() : ignoreRules);
+        // resolve ignored validators once instead of at each validation
+        this.activeValidators = validators.stream() //
+                .filter(v -> !skip(v.getClass())) //
+                .collect(Collectors.toList());
+        this.statefulValidators = activeValidators.stream() //
+                .filter(IStatefulValidator.class::isInstance) //
+                .collect(Collectors.toList());
     }
 
     @Override
     public Collection<ValidationError> validate(ChangeSet changeSet) {
         Collection<ValidationError> issues = new ArrayList<>();
 
-        for (IChangeSetValidator validator : validators) {
-            if (!skip(validator.getClass())) {
-                issues.addAll(validator.validate(changeSet));
-            }
+        for (IChangeSetValidator validator : activeValidators) {
+            issues.addAll(validator.validate(changeSet));
         }
         return Collections.unmodifiableCollection(issues);
     }
 
+    /**
+     * Runs only the validators that keep a state about validated changesets,
+     * so that following changesets are validated as if this one was
+     * validated too. Issues about the given changeset are discarded.
+     *
+     * @param changeSet
+     *            the changeset to replay
+     */
+    public void replay(ChangeSet changeSet) {
+        for (IChangeSetValidator validator : statefulValidators) {
+            validator.validate(changeSet);
+        }
+    }
+
     /**
      * Skip the validator if its annotation name is in the list of exclusions.
      *
@@ -64,9 +86,7 @@ public class CompositeChangeSetValidator implements IChangeSetValidator {
      * @return true if the validator is skipped
      */
     protected boolean skip(Class<?> clazz) {
-        Validator annotation = clazz.getDeclaredAnnotation(Validator.class);
-        String ruleName = annotation != null ? annotation.name() : null;
-        return ruleName != null && ignoreRules.contains(ruleName);
+        return ValidatorMetadata.of(clazz).isIgnored(ignoreRules);
     }
 
     /**
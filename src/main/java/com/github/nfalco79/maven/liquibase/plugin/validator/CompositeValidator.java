@@ -18,8 +18,11 @@ package com.github.nfalco79.maven.liquibase.plugin.validator;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ChangeStorage;
 
@@ -28,8 +31,13 @@ import liquibase.change.Change;
 public class CompositeValidator implements IChangeValidator {
 
     private final Collection<IChangeValidator> validators;
+    private final Collection<IChangeValidator> activeValidators;
+    private final Collection<IChangeValidator> statefulValidators;
+    // active validators split by position between ordered and stateless ones
+    private final List<IChangeValidator> orderedValidators;
+    private final List<IChangeValidator> statelessValidators;
     private final Set<String> ignoreRules;
-    private ChangeStorage storage;
+    private final ChangeStorage storage;
 
     public Collection<IChangeValidator> getValidators() {
         return validators;
@@ -48,25 +56,92 @@ public class CompositeValidator implements IChangeValidator {
     public CompositeValidator(Collection<IChangeValidator> validators, Set<String> ignoreRules, ChangeStorage storage) {
         this.validators = Collections.unmodifiableCollection(validators);
         this.ignoreRules = (ignoreRules == null ? Collections.emptySet() : ignoreRules);
+        // resolve ignored validators once instead of at each validation
+        this.activeValidators = validators.stream() //
+                .filter(v -> !skip(v.getClass())) //
+                .collect(Collectors.toList());
+        this.statefulValidators = activeValidators.stream() //
+                .filter(IStatefulValidator.class::isInstance) //
+                .collect(Collectors.toList());
+        this.orderedValidators = new ArrayList<>(activeValidators.size());
+        this.statelessValidators = new ArrayList<>(activeValidators.size());
+        for (IChangeValidator validator : activeValidators) {
+            boolean stateless = ValidatorMetadata.of(validator.getClass()).isStateless();
+            orderedValidators.add(stateless ? null : validator);
+            statelessValidators.add(stateless ? validator : null);
+        }
         this.storage = storage;
     }
 
     @Override
     public Collection<ValidationError> validate(Change change) {
-        Collection<ValidationError> issues = new ArrayList<>();
+        Collection<ValidationError> issues = Collections.emptyList();
+
+        for (IChangeValidator validator : activeValidators) {
+            issues = merge(issues, validator.validate(change, storage));
+        }
+        return issues;
+    }
+
+    /**
+     * Runs the validators that depend on the order of changes and returns a
+     * task that completes the validation of the given change.
+     * <p>
+     * This method must be called in the same order changes are notified to
+     * the storage, the returned task runs only stateless validators and can be
+     * executed later by any thread. The task returns the issues of all
+     * validators in the same order of {@link #validate(Change)}.
+     *
+     * @param change
+     *            the change to validate
+     * @return the task that completes the validation
+     */
+    public Supplier<Collection<ValidationError>> prepare(Change change) {
+        List<Collection<ValidationError>> results = new ArrayList<>(orderedValidators.size());
+        for (IChangeValidator validator : orderedValidators) {
+            results.add(validator != null ? validator.validate(change, storage) : null);
+        }
 
-        for (IChangeValidator validator : validators) {
-            if (!skip(validator.getClass())) {
-                issues.addAll(validator.validate(change, storage));
+        return () -> {
+            Collection<ValidationError> issues = Collections.emptyList();
+            for (int i = 0; i < results.size(); i++) {
+                IChangeValidator validator = statelessValidators.get(i);
+                issues = merge(issues, validator != null ? validator.validate(change, storage) : results.get(i));
             }
+            return issues;
+        };
+    }
+
+    /**
+     * Runs only the validators that keep a state about validated changes, so
+     * that following changes are validated as if this one was validated too.
+     * Issues about the given change are discarded.
+     *
+     * @param change
+     *            the change to replay
+     */
+    public void replay(Change change) {
+        for (IChangeValidator validator : statefulValidators) {
+            validator.validate(change, storage);
+        }
+    }
+
+    /*
+     * Most changes have no issues, a list is allocated only when needed.
+     */
+    private Collection<ValidationError> merge(Collection<ValidationError> issues, Collection<ValidationError> others) {
+        if (others.isEmpty()) {
+            return issues;
+        }
+        if (issues.isEmpty()) {
+            issues = new ArrayList<>(others.size());
         }
-        return Collections.unmodifiableCollection(issues);
+        issues.addAll(others);
+        return issues;
     }
 
     protected boolean skip(Class<?> clazz) {
-        Validator annotation = clazz.getDeclaredAnnotation(Validator.class);
-        String ruleName = annotation != null ? annotation.name() : null;
-        return ruleName != null && ignoreRules.contains(ruleName);
+        return ValidatorMetadata.of(clazz).isIgnored(ignoreRules);
     }
 
     @Override
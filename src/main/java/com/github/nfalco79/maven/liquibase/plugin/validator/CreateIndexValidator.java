@@ -18,13 +18,10 @@ package com.github.nfalco79.maven.liquibase.plugin.validator;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Optional;
 
 import com.github.nfalco79.maven.liquibase.plugin.util.LiquibaseUtil;
 import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ChangeStorage;
 import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ColumnInfo;
-import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ColumnKey;
-import com.github.nfalco79.maven.liquibase.plugin.validator.sizextractor.ColumnRowSizeDB2;
 
 import liquibase.change.AddColumnConfig;
 import liquibase.change.Change;
@@ -39,7 +36,6 @@ public class CreateIndexValidator implements IChangeValidator {
 
     private static final String COLUMN = "column";
     private final int maxLength;
-    private IColumnRowSize extractor;
 
     /**
      * Constructs an instance of this class.
@@ -48,7 +44,6 @@ public class CreateIndexValidator implements IChangeValidator {
      */
     public CreateIndexValidator(final int maxLength) {
         this.maxLength = maxLength;
-        extractor = new ColumnRowSizeDB2();
     }
 
     /**
@@ -73,9 +68,9 @@ public class CreateIndexValidator implements IChangeValidator {
             // Iterate over the columns involved in index creation
             for (AddColumnConfig col : columns) {
                 String colName = col.getName();
-                Optional<ColumnInfo> colInfo = storage.filterBy(ColumnInfo.class, new ColumnKey(tableName, colName)).findFirst();
-                if (colInfo.isPresent()) {
-                    internalSumLengths += extractor.getSize(colInfo.get());
+                ColumnInfo colInfo = storage.getColumn(tableName, colName);
+                if (colInfo != null) {
+                    internalSumLengths += colInfo.getKeySize();
                 }
             }
 
@@ -15,6 +15,7 @@
  */
 package com.github.nfalco79.maven.liquibase.plugin.validator;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -31,7 +32,7 @@ import liquibase.changelog.DatabaseChangeLog;
  * Validator to check if a changeSet if is duplicated in the same module.
  */
 @Validator(name = "duplicatedId", scope = Scope.SINGLETON)
-public class DuplicatedIdValidator implements IChangeSetValidator {
+public class DuplicatedIdValidator implements IChangeSetValidator, IStatefulValidator {
 
     private Map<String, ChangeSetId> store = new HashMap<>();
 
@@ -61,10 +62,23 @@ public class DuplicatedIdValidator implements IChangeSetValidator {
         return issues;
     }
 
+    @Override
+    public Serializable saveState() {
+        return new HashMap<>(store);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void restoreState(Serializable state) {
+        store = new HashMap<>((Map<String, ChangeSetId>) state);
+    }
+
     /**
      * The key used to identify previous occurrences of a changeSet.
      */
-    private static final class ChangeSetId {
+    private static final class ChangeSetId implements Serializable {
+        private static final long serialVersionUID = 5520813245337066138L;
+
         private final String file;
         private final String module;
         private final String id;
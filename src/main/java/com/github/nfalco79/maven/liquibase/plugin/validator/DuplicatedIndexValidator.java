@@ -15,10 +15,12 @@
  */
 package com.github.nfalco79.maven.liquibase.plugin.validator;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.codehaus.plexus.util.StringUtils;
@@ -34,7 +36,7 @@ import liquibase.change.core.CreateIndexChange;
 import liquibase.change.core.DropIndexChange;
 
 @Validator(name = "duplicatedIndex", scope = Scope.SINGLETON)
-public class DuplicatedIndexValidator implements IChangeValidator {
+public class DuplicatedIndexValidator implements IChangeValidator, IStatefulValidator {
 
     private BiMap<String, String> indexes = HashBiMap.create();
 
@@ -69,4 +71,14 @@ public class DuplicatedIndexValidator implements IChangeValidator {
         return StringUtils.join(keys.iterator(), "-");
     }
 
+    @Override
+    public Serializable saveState() {
+        return HashBiMap.create(indexes);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void restoreState(Serializable state) {
+        indexes = HashBiMap.create((Map<String, String>) state);
+    }
 }
@@ -16,6 +16,7 @@
 package com.github.nfalco79.maven.liquibase.plugin.validator;
 
 import java.io.File;
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
@@ -35,7 +36,7 @@ import liquibase.changelog.DatabaseChangeLog;
  * the project.
  */
 @Validator(name = "filePath", scope = Scope.SINGLETON)
-public class FilePathValidator implements IChangeLogValidator, IChangeSetValidator {
+public class FilePathValidator implements IChangeLogValidator, IChangeSetValidator, IStatefulValidator {
 
     public static final char PATH_SEPARATOR = '/';
     public static final char WINDOWS_PATH_SEPARATOR = '\\';
@@ -116,4 +117,15 @@ public class FilePathValidator implements IChangeLogValidator, IChangeSetValidat
         return validate(changeSet.getChangeLog());
     }
 
+    @Override
+    public Serializable saveState() {
+        return new LinkedHashSet<>(cache.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void restoreState(Serializable state) {
+        cache.get().clear();
+        cache.get().addAll((Set<String>) state);
+    }
 }
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin.validator;
+
+import java.io.Serializable;
+
+/**
+ * A singleton validator that keeps information about the already validated
+ * changes. Its state is saved with the storage snapshot so that a validation
+ * could resume from a given changelog.
+ */
+public interface IStatefulValidator {
+
+    /**
+     * Returns a copy of the current validator state.
+     *
+     * @return the validator state
+     */
+    Serializable saveState();
+
+    /**
+     * Replaces the current validator state with the given one.
+     *
+     * @param state
+     *            a state previously returned by {@link #saveState()}
+     */
+    void restoreState(Serializable state);
+
+}
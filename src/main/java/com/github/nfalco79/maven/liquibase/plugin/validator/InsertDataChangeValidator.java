@@ -15,6 +15,7 @@
  */
 package com.github.nfalco79.maven.liquibase.plugin.validator;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -30,7 +31,7 @@ import liquibase.change.core.InsertDataChange;
  * Check that insert data change manages only tables in their scope.
  */
 @Validator(name = "insertDataChange", scope = Scope.SINGLETON)
-public class InsertDataChangeValidator implements IChangeValidator {
+public class InsertDataChangeValidator implements IChangeValidator, IStatefulValidator {
 
     private Map<String, String> tablesCache = new HashMap<>();
 
@@ -66,4 +67,14 @@ public class InsertDataChangeValidator implements IChangeValidator {
         return issues;
     }
 
+    @Override
+    public Serializable saveState() {
+        return new HashMap<>(tablesCache);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void restoreState(Serializable state) {
+        tablesCache = new HashMap<>((Map<String, String>) state);
+    }
 }
@@ -51,7 +51,7 @@ public class LOBValidator implements IChangeValidator {
         LOBDimensionRule lobDimensionRule = new LOBDimensionRule();
         RuleEngine ruleEngine = new RuleEngine();
 
-        for (String field : fields) {
+        for (String field : ChangeAttributes.of(change).retain(fields)) {
             String fieldValue = (String) ReflectionUtil.getFieldValue(field, change);
             if (fieldValue != null) {
                 ruleEngine.add(lobDimensionRule, new ValidationContext(change, field, fieldValue));
@@ -37,7 +37,7 @@ public class LowerCaseValidator implements IChangeValidator {
 
         LowerCaseRule rule = new LowerCaseRule();
 
-        for (String field : fields) {
+        for (String field : ChangeAttributes.of(change).retain(fields)) {
             ruleEngine.add(rule, new ValidationContext(change, field));
         }
 
@@ -37,7 +37,7 @@ public class NotPermittedValidator implements IChangeValidator {
 
         RuleEngine ruleEngine = new RuleEngine();
 
-        for (String field : fields) {
+        for (String field : ChangeAttributes.of(change).retain(fields)) {
             ruleEngine.add(rule, new ValidationContext(change, field));
         }
 
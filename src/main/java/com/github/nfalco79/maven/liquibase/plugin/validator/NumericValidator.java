@@ -56,7 +56,7 @@ public class NumericValidator implements IChangeValidator {
 
         RuleEngine ruleEngine = new RuleEngine();
 
-        for (String field : fields) {
+        for (String field : ChangeAttributes.of(change).retain(fields)) {
             String fieldValue = (String) ReflectionUtil.getFieldValue(field, change);
             if (fieldValue != null) {
                 ruleEngine.add(numericPrecisionRule, new ValidationContext(change, field, fieldValue));
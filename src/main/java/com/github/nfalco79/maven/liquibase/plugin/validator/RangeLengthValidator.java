@@ -55,7 +55,7 @@ public class RangeLengthValidator implements IChangeValidator {
 
         RuleEngine ruleEngine = new RuleEngine();
 
-        for (String field : fields) {
+        for (String field : ChangeAttributes.of(change).retain(fields)) {
             String fieldValue = (String) ReflectionUtil.getFieldValue(field, change);
             if (fieldValue != null) {
                 StringTokenizer st = new StringTokenizer(fieldValue, ",");
@@ -18,14 +18,10 @@ package com.github.nfalco79.maven.liquibase.plugin.validator;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
-import java.util.List;
-import java.util.stream.Collectors;
 
 import com.github.nfalco79.maven.liquibase.plugin.util.LiquibaseUtil;
 import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ChangeStorage;
 import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ColumnInfo;
-import com.github.nfalco79.maven.liquibase.plugin.validator.listener.TableKey;
-import com.github.nfalco79.maven.liquibase.plugin.validator.sizextractor.ColumnRowSizeDB2;
 
 import liquibase.change.Change;
 import liquibase.change.core.AddColumnChange;
@@ -40,7 +36,6 @@ public class TableSizeValidator implements IChangeValidator {
 
     private static final String COLUMN = "column";
     private final int rowSizeLimit;
-    private IColumnRowSize extractor;
 
     /**
      * Constructs an instance of this class.
@@ -49,7 +44,6 @@ public class TableSizeValidator implements IChangeValidator {
      */
     public TableSizeValidator(final int rowSizeLimit) {
         this.rowSizeLimit = rowSizeLimit;
-        extractor = new ColumnRowSizeDB2();
     }
 
     /**
@@ -76,10 +70,14 @@ public class TableSizeValidator implements IChangeValidator {
             tableName = modifyType.getTableName();
         }
 
+        if (storage.getRowSize(tableName) <= rowSizeLimit) {
+            return issues;
+        }
+
+        // look for the first column that exceeds the limit only when the table does
         int tableSize = 0;
-        List<ColumnInfo> colInfos = storage.filterBy(ColumnInfo.class, new TableKey(tableName)).collect(Collectors.toList());
-        for (ColumnInfo col : colInfos) {
-            tableSize += extractor.getRowSize(col);
+        for (ColumnInfo col : storage.getColumns(tableName)) {
+            tableSize += col.getRowSize();
             if (tableSize > rowSizeLimit) {
                 String message = "Table " + tableName + " with column " + col.getName()
                         + " exceeds the table limit of " + rowSizeLimit + ".";
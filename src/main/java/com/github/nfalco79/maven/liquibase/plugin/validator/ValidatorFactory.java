@@ -15,6 +15,14 @@
  */
 package com.github.nfalco79.maven.liquibase.plugin.validator;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -23,14 +31,19 @@ import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.github.nfalco79.maven.liquibase.plugin.validator.Validator.Scope;
 import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ChangeStorage;
 import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ColumnListener;
+import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ColumnSizeListener;
 import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ConstraintListener;
 import com.github.nfalco79.maven.liquibase.plugin.validator.listener.IChangeListener;
+import com.github.nfalco79.maven.liquibase.plugin.validator.sizextractor.ColumnRowSizeDB2;
 
 import liquibase.change.Change;
 import liquibase.change.core.AddColumnChange;
@@ -80,10 +93,14 @@ public class ValidatorFactory {
     private Set<String> includeChanges;
     private Set<String> excludeChanges;
     private Set<String> ignoreRules;
+    private Map<String, String> configuration = Collections.emptyMap();
     private Set<Object> extraValidators = new LinkedHashSet<>();
     private Map<String, Object> singletons = new HashMap<>();
     private ChangeStorage storage;
     private Collection<IChangeListener> listeners = new CopyOnWriteArrayList<IChangeListener>();
+    private Map<Class<? extends Change>, CompositeValidator> plans = new ConcurrentHashMap<>();
+    private CompositeChangeSetValidator changeSetPlan;
+    private Map<String, Serializable> pendingStates = new HashMap<>();
 
     /**
      * Constructs an instance of this class.
@@ -92,6 +109,7 @@ public class ValidatorFactory {
         storage = new ChangeStorage();
         register(new ColumnListener());
         register(new ConstraintListener());
+        register(new ColumnSizeListener(new ColumnRowSizeDB2()));
     }
 
     /**
@@ -125,7 +143,8 @@ public class ValidatorFactory {
      * @return if it is added or not.
      */
     public boolean addValidator(IChangeValidator validator) {
-        return extraValidators.add(validator);
+        resetPlans();
+        return extraValidators.add(configure(validator));
     }
 
     /**
@@ -136,7 +155,8 @@ public class ValidatorFactory {
      * @return if it is added or not.
      */
     public boolean addValidator(IChangeSetValidator validator) {
-        return extraValidators.add(validator);
+        resetPlans();
+        return extraValidators.add(configure(validator));
     }
 
     /**
@@ -147,164 +167,345 @@ public class ValidatorFactory {
      * @return if it is added or not.
      */
     public boolean addValidator(IChangeLogValidator validator) {
-        return extraValidators.add(validator);
+        resetPlans();
+        return extraValidators.add(configure(validator));
     }
 
     /**
-     * Create new validator collecting every possible validation for the given change.
+     * Returns a validator collecting every possible validation for the given
+     * change.
+     * <p>
+     * The listeners are notified of the change and the validation plan for the
+     * change class is returned. The plan is built once for each change class
+     * and shared between changes, so validators in the plan must not keep
+     * state about the validated change.
      *
      * @param change
      *            the change to validate
-     * @return the new composed validator.
+     * @return the composed validator.
      */
-    public IChangeValidator newValidator(Change change) { // NOSONAR
+    public IChangeValidator newValidator(Change change) {
         notify(change);
 
-        Class<? extends Change> clazz = change.getClass();
+        return plans.computeIfAbsent(change.getClass(), this::buildPlan);
+    }
+
+    private CompositeValidator buildPlan(Class<? extends Change> clazz) { // NOSONAR
         Collection<IChangeValidator> validators = new LinkedList<>(extraValidators.stream() //
                 .filter(IChangeValidator.class::isInstance) //
+                .filter(v -> !isIgnored(v)) //
                 .map(IChangeValidator.class::cast) //
                 .collect(Collectors.toList()));
 
-        validators.add(scopedValidator(new IncludeExcludeChange(includeChanges, excludeChanges)));
+        addScoped(validators, IncludeExcludeChange.class, () -> new IncludeExcludeChange(includeChanges, excludeChanges));
 
-        validators.add(scopedValidator(new NotPermittedValidator(CATALOG_NAME, SCHEMA_NAME, //
+        addScoped(validators, NotPermittedValidator.class, () -> new NotPermittedValidator(CATALOG_NAME, SCHEMA_NAME, //
             BASE_TABLE_CATALOG_NAME, BASE_TABLE_SHEMA_NAME, //
             REFERENCED_TABLE_CATALOG_NAME, REFERENCED_TABLE_SCHEMA_NAME, //
-            DEFAULT_VALUE_COMPUTED)));
+            DEFAULT_VALUE_COMPUTED));
 
-        validators.add(scopedValidator(new LowerCaseValidator(TABLE_NAME, COLUMN_NAME, BASE_COLUMN_NAMES, //
+        addScoped(validators, LowerCaseValidator.class, () -> new LowerCaseValidator(TABLE_NAME, COLUMN_NAME, BASE_COLUMN_NAMES, //
             CONSTRAINT_NAME, BASE_TABLE_NAME, REFERENCED_TABLE_NAME, //
             COLUMN_NAMES, SEQUENCE_NAME, INDEX_NAME, //
             NEW_COLUMN_NAME, OLD_COLUMN_NAME, //
-            NEW_SEQUENCE_NAME, OLD_SEQUENCE_NAME)));
+            NEW_SEQUENCE_NAME, OLD_SEQUENCE_NAME));
 
-        validators.add(scopedValidator(new Oracle11gLengthValidator()));
+        addScoped(validators, Oracle11gLengthValidator.class, Oracle11gLengthValidator::new);
 
         if (AddColumnChange.class.isAssignableFrom(clazz)) {
-            validators.add(scopedValidator(new ColumnsValidator(1, 30, 31)));
-            validators.add(scopedValidator(new Oracle11gCLOBValidator()));
-            validators.add(scopedValidator(new TenantIdNotNullValidator()));
-            validators.add(scopedValidator(new ColumnNotNullConstraintValidator()));
+            addScoped(validators, ColumnsValidator.class, () -> new ColumnsValidator(1, 30, 31));
+            addScoped(validators, Oracle11gCLOBValidator.class, Oracle11gCLOBValidator::new);
+            addScoped(validators, TenantIdNotNullValidator.class, TenantIdNotNullValidator::new);
+            addScoped(validators, ColumnNotNullConstraintValidator.class, ColumnNotNullConstraintValidator::new);
             // In db2 a 4KB page size with regular table space implies a row size limit of 4005B.
-            validators.add(scopedValidator((new TableSizeValidator(4005))));
-            //validators.add(scopedValidator(new DefaultValueColumnValidator()));
+            addScoped(validators, TableSizeValidator.class, () -> new TableSizeValidator(4005));
+            //addScoped(validators, DefaultValueColumnValidator.class, DefaultValueColumnValidator::new);
         }
         if (AddNotNullConstraintChange.class.isAssignableFrom(clazz)) {
-            validators.add(scopedValidator(new ColumnNotNullConstraintValidator()));
+            addScoped(validators, ColumnNotNullConstraintValidator.class, ColumnNotNullConstraintValidator::new);
         }
         if (AlterSequenceChange.class.isAssignableFrom(clazz)) {
-            validators.add(scopedValidator(new NotPermittedValidator(START_VALUE, INCREMENT_BY)));
+            addScoped(validators, NotPermittedValidator.class, () -> new NotPermittedValidator(START_VALUE, INCREMENT_BY));
         }
         // If change type is ResizeDataTypeChange, both the following statements are run
         if (ModifyDataTypeChange.class.isAssignableFrom(clazz)) {
-            validators.add(scopedValidator(new ModifyDataTypeValidator()));
+            addScoped(validators, ModifyDataTypeValidator.class, ModifyDataTypeValidator::new);
             if (ModifyDataTypeChange.class == clazz) {
-                validators.add(scopedValidator(new Oracle11gModifyDataTypeValidator()));
+                addScoped(validators, Oracle11gModifyDataTypeValidator.class, Oracle11gModifyDataTypeValidator::new);
             }
-            validators.add(scopedValidator(new NumericValidator(31, NEW_DATA_TYPE)));
-            validators.add(scopedValidator(new LOBValidator(NEW_DATA_TYPE)));
-            validators.add(scopedValidator((new TableSizeValidator(4005))));
-            validators.add(scopedValidator((new ColumnConstraintsValidator())));
+            addScoped(validators, NumericValidator.class, () -> new NumericValidator(31, NEW_DATA_TYPE));
+            addScoped(validators, LOBValidator.class, () -> new LOBValidator(NEW_DATA_TYPE));
+            addScoped(validators, TableSizeValidator.class, () -> new TableSizeValidator(4005));
+            addScoped(validators, ColumnConstraintsValidator.class, ColumnConstraintsValidator::new);
         }
         if (ResizeDataTypeChange.class.isAssignableFrom(clazz)) {
-            validators.add(scopedValidator(new Oracle11gCLOBValidator()));
+            addScoped(validators, Oracle11gCLOBValidator.class, Oracle11gCLOBValidator::new);
         }
         if (CreateIndexChange.class.isAssignableFrom(clazz)) {
-            validators.add(scopedValidator(new ColumnsValidator(1, 30, 31)));
-            validators.add(scopedValidator(new DuplicatedIndexValidator()));
+            addScoped(validators, ColumnsValidator.class, () -> new ColumnsValidator(1, 30, 31));
+            addScoped(validators, DuplicatedIndexValidator.class, DuplicatedIndexValidator::new);
             // The limit for index key (or row) size in db2 is the page size divided by 4: for a 4KB page size, it is 1024B.
-            validators.add(scopedValidator(new CreateIndexValidator(1024)));
+            addScoped(validators, CreateIndexValidator.class, () -> new CreateIndexValidator(1024));
         }
         if (CreateSequenceChange.class.isAssignableFrom(clazz)) {
-            validators.add(scopedValidator(new RangeLengthValidator(1, 30, SEQUENCE_NAME)));
-            validators.add(scopedValidator(new SequenceValidator()));
+            addScoped(validators, RangeLengthValidator.class, () -> new RangeLengthValidator(1, 30, SEQUENCE_NAME));
+            addScoped(validators, SequenceValidator.class, SequenceValidator::new);
         }
         if (CreateTableChange.class.isAssignableFrom(clazz)) {
-            validators.add(scopedValidator(new ColumnsValidator(1, 30, 31)));
-            validators.add(scopedValidator(new Oracle11gCLOBValidator()));
-            validators.add(scopedValidator(new TenantIdNotNullValidator()));
-            validators.add(scopedValidator((new TableSizeValidator(4005))));
-            //validators.add(scopedValidator(new DefaultValueColumnValidator()));
+            addScoped(validators, ColumnsValidator.class, () -> new ColumnsValidator(1, 30, 31));
+            addScoped(validators, Oracle11gCLOBValidator.class, Oracle11gCLOBValidator::new);
+            addScoped(validators, TenantIdNotNullValidator.class, TenantIdNotNullValidator::new);
+            addScoped(validators, TableSizeValidator.class, () -> new TableSizeValidator(4005));
+            //addScoped(validators, DefaultValueColumnValidator.class, DefaultValueColumnValidator::new);
         }
         if (DropAllForeignKeyConstraintsChange.class.isAssignableFrom(clazz)) {
-            validators.add(scopedValidator(new NotPermittedValidator(BASE_TABLE_CATALOG_NAME, BASE_TABLE_SHEMA_NAME)));
+            addScoped(validators, NotPermittedValidator.class, () -> new NotPermittedValidator(BASE_TABLE_CATALOG_NAME, BASE_TABLE_SHEMA_NAME));
         }
         if (DropColumnChange.class.isAssignableFrom(clazz)) {
-            validators.add(scopedValidator(new ColumnsValidator(1, 30, 31)));
-            validators.add(scopedValidator(new DropColumnValidator()));
+            addScoped(validators, ColumnsValidator.class, () -> new ColumnsValidator(1, 30, 31));
+            addScoped(validators, DropColumnValidator.class, DropColumnValidator::new);
         }
         if (DropIndexChange.class.isAssignableFrom(clazz)) {
-            validators.add(scopedValidator(new DuplicatedIndexValidator()));
+            addScoped(validators, DuplicatedIndexValidator.class, DuplicatedIndexValidator::new);
         }
         if (CopyColumnChange.class.isAssignableFrom(clazz)) {
-            validators.add(scopedValidator(new CopyColumnValidator()));
+            addScoped(validators, CopyColumnValidator.class, CopyColumnValidator::new);
         }
         if (InsertDataChange.class.isAssignableFrom(clazz)) {
-            validators.add(scopedValidator(new InsertDataChangeValidator()));
-            validators.add(scopedValidator(new InsertColumnsValidator()));
-            //validators.add(scopedValidator(new DefaultValueColumnValidator()));
+            addScoped(validators, InsertDataChangeValidator.class, InsertDataChangeValidator::new);
+            addScoped(validators, InsertColumnsValidator.class, InsertColumnsValidator::new);
+            //addScoped(validators, DefaultValueColumnValidator.class, DefaultValueColumnValidator::new);
         }
         if (AddUniqueConstraintChange.class.isAssignableFrom(clazz)) {
-            validators.add(scopedValidator(new AddUniqueConstraintValidator()));
+            addScoped(validators, AddUniqueConstraintValidator.class, AddUniqueConstraintValidator::new);
         }
         if (RenameColumnChange.class.isAssignableFrom(clazz)) {
-            validators.add(scopedValidator((new ColumnConstraintsValidator())));
+            addScoped(validators, ColumnConstraintsValidator.class, ColumnConstraintsValidator::new);
         }
         if (CreateViewChange.class.isAssignableFrom(clazz)) {
-            validators.add(scopedValidator((new ReplaceViewValidator())));
+            addScoped(validators, ReplaceViewValidator.class, ReplaceViewValidator::new);
         }
         return new CompositeValidator(validators, ignoreRules, storage);
     }
 
+    /**
+     * Adds a validator to the plan unless its rule is ignored, in such case
+     * the validator is not even created.
+     *
+     * @param validators
+     *            the validators of the plan
+     * @param type
+     *            the validator class
+     * @param supplier
+     *            the function that creates a new validator instance
+     */
+    protected <T> void addScoped(Collection<? super T> validators, Class<T> type, Supplier<T> supplier) {
+        if (!ValidatorMetadata.of(type).isIgnored(ignoreRules)) {
+            validators.add(scopedValidator(type, supplier));
+        }
+    }
+
+    private boolean isIgnored(Object validator) {
+        return ValidatorMetadata.of(validator.getClass()).isIgnored(ignoreRules);
+    }
+
+    private void resetPlans() {
+        plans.clear();
+        changeSetPlan = null;
+    }
+
     @SuppressWarnings("unchecked")
     protected <T> T scopedValidator(T validator) {
-        T validatorInstance = validator;
+        return scopedValidator((Class<T>) validator.getClass(), () -> validator);
+    }
 
-        Validator annotation = validator.getClass().getAnnotation(Validator.class);
-        if (annotation == null) {
-            throw new IllegalStateException("Validator " + validator.getClass() + " lacks of @Validator annotation");
+    @SuppressWarnings("unchecked")
+    protected <T> T scopedValidator(Class<T> type, Supplier<T> supplier) {
+        ValidatorMetadata metadata = ValidatorMetadata.of(type);
+        if (!metadata.isAnnotated()) {
+            throw new IllegalStateException("Validator " + type + " lacks of @Validator annotation");
         }
-        if (annotation.scope() == Scope.SINGLETON) {
-            String name = annotation.name();
-            if (!singletons.containsKey(name)) {
-                singletons.put(name, validator);
-            } else {
-                validatorInstance = (T) singletons.get(name);
-            }
+        if (metadata.getScope() == Scope.SINGLETON) {
+            return (T) singletons.computeIfAbsent(metadata.getName(), name -> restoreState(name, configure(supplier.get())));
         }
+        return configure(supplier.get());
+    }
 
-        return validatorInstance;
+    private <T> T configure(T validator) {
+        if (validator instanceof IChangeValidator) {
+            ((IChangeValidator) validator).configure(configuration);
+        } else if (validator instanceof IChangeSetValidator) {
+            ((IChangeSetValidator) validator).configure(configuration);
+        }
+        return validator;
     }
 
     /**
      * Returns a validator for changeset.
+     * <p>
+     * The same validator is shared between all changesets.
      *
      * @param changeSet
      *            the changeset to validate
      * @return the changeset validator
      */
     public IChangeSetValidator newChangeSetValidator(ChangeSet changeSet) {
+        if (changeSetPlan == null) {
+            changeSetPlan = buildChangeSetPlan();
+        }
+        return changeSetPlan;
+    }
+
+    /**
+     * Replays a changeset that does not need to be validated.
+     * <p>
+     * Listeners update the storage with its changes and validators that keep
+     * a state record them, so that following changesets are validated as
+     * after a complete validation. Stateless validators do not run and no
+     * issue is reported.
+     *
+     * @param changeSet
+     *            the changeset to replay
+     */
+    public void replay(ChangeSet changeSet) {
+        if (changeSetPlan == null) {
+            changeSetPlan = buildChangeSetPlan();
+        }
+        changeSetPlan.replay(changeSet);
+
+        for (Change change : changeSet.getChanges()) {
+            notify(change);
+            plans.computeIfAbsent(change.getClass(), this::buildPlan).replay(change);
+        }
+    }
+
+    private CompositeChangeSetValidator buildChangeSetPlan() {
         Collection<IChangeSetValidator> validators = new LinkedList<>(extraValidators.stream() //
                 .filter(IChangeSetValidator.class::isInstance) //
+                .filter(v -> !isIgnored(v)) //
                 .map(IChangeSetValidator.class::cast) //
                 .collect(Collectors.toList()));
 
-        validators.add(scopedValidator(new DuplicatedIdValidator()));
-        validators.add(scopedValidator(new CheckSumValidator()));
+        addScoped(validators, DuplicatedIdValidator.class, DuplicatedIdValidator::new);
+        addScoped(validators, CheckSumValidator.class, CheckSumValidator::new);
         return new CompositeChangeSetValidator(validators, ignoreRules);
     }
 
     public void setIncludeChanges(Set<String> includeChanges) {
         this.includeChanges = Collections.unmodifiableSet(includeChanges);
+        resetPlans();
     }
 
     public void setExcludeChanges(Set<String> excludeChanges) {
         this.excludeChanges = Collections.unmodifiableSet(excludeChanges);
+        resetPlans();
     }
 
     public void setIgnoreRules(Set<String> ignoreRules) {
         this.ignoreRules = Collections.unmodifiableSet(ignoreRules);
+        resetPlans();
+    }
+
+    /**
+     * Sets the configuration of validators. The configuration is bound once to
+     * each validator when it is registered or created, validators already
+     * registered are configured again.
+     *
+     * @param configuration
+     *            the configuration parameters in the form
+     *            {@code <validator name>.<configuration key>}
+     */
+    public void setConfiguration(Map<String, String> configuration) {
+        this.configuration = configuration != null ? Collections.unmodifiableMap(new HashMap<>(configuration)) : Collections.emptyMap();
+        extraValidators.forEach(this::configure);
+        singletons.values().forEach(this::configure);
+        resetPlans();
+    }
+
+    /**
+     * Writes a snapshot of the storage and of the state of all stateful
+     * singleton validators.
+     *
+     * @param os
+     *            where write the snapshot
+     * @throws IOException
+     *             in case of failure writing the snapshot
+     */
+    public void saveSnapshot(OutputStream os) throws IOException {
+        Map<String, Serializable> states = new HashMap<>(pendingStates);
+        getStatefulValidators().forEach((name, validator) -> states.put(name, validator.saveState()));
+
+        ObjectOutputStream oos = new ObjectOutputStream(os);
+        oos.writeObject(storage);
+        oos.writeObject(states);
+        oos.flush();
+    }
+
+    /**
+     * Restores the storage and the state of stateful singleton validators
+     * from a snapshot written by {@link #saveSnapshot(OutputStream)}. The
+     * state of validators not yet created is restored when they are created.
+     *
+     * @param is
+     *            from where read the snapshot
+     * @throws IOException
+     *             in case the snapshot could not be read, in such case the
+     *             current state is left untouched
+     */
+    @SuppressWarnings("unchecked")
+    public void restoreSnapshot(InputStream is) throws IOException {
+        ChangeStorage snapshotStorage;
+        Map<String, Serializable> states;
+        try {
+            ObjectInputStream ois = new SnapshotInputStream(is);
+            snapshotStorage = (ChangeStorage) ois.readObject();
+            states = (Map<String, Serializable>) ois.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Invalid validation snapshot", e);
+        }
+
+        storage = snapshotStorage;
+        resetPlans();
+        pendingStates = new HashMap<>(states);
+        getStatefulValidators().forEach(this::restoreState);
+    }
+
+    private Map<String, IStatefulValidator> getStatefulValidators() {
+        Map<String, IStatefulValidator> validators = new HashMap<>();
+        Stream.concat(extraValidators.stream(), singletons.values().stream()) //
+            .filter(IStatefulValidator.class::isInstance) //
+            .forEach(v -> validators.put(ValidatorMetadata.of(v.getClass()).getName(), (IStatefulValidator) v));
+        return validators;
+    }
+
+    private <T> T restoreState(String name, T validator) {
+        Serializable state = pendingStates.remove(name);
+        if (state != null && validator instanceof IStatefulValidator) {
+            ((IStatefulValidator) validator).restoreState(state);
+        }
+        return validator;
+    }
+
+    /*
+     * Snapshot are read from the build folder, anyway only classes that could
+     * be part of a snapshot are allowed.
+     */
+    private static class SnapshotInputStream extends ObjectInputStream {
+        private static final String[] ALLOWED_PACKAGES = { "java.lang.", "java.util.", //
+            "com.github.nfalco79.maven.liquibase.plugin.", "com.google.common.collect." };
+
+        public SnapshotInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            String className = desc.getName();
+            if (!className.startsWith("[") && Stream.of(ALLOWED_PACKAGES).noneMatch(className::startsWith)) {
+                throw new InvalidClassException(className, "Class not allowed in a validation snapshot");
+            }
+            return super.resolveClass(desc);
+        }
     }
 
     protected ChangeStorage getStorage() {
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin.validator;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.codehaus.plexus.component.annotations.Configuration;
+import org.codehaus.plexus.util.ReflectionUtils;
+
+import com.github.nfalco79.maven.liquibase.plugin.validator.Validator.Scope;
+import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ChangeStorage;
+
+import liquibase.change.Change;
+
+/**
+ * Information about a validator class read from its {@link Validator}
+ * annotation and its {@link Configuration} fields.
+ * <p>
+ * Metadata are resolved once per class and kept in a registry, configurable
+ * fields are made accessible at that time so that binding a configuration to
+ * a validator does not require any further reflection lookup.
+ */
+public final class ValidatorMetadata {
+
+    private static final Map<Class<?>, ValidatorMetadata> REGISTRY = new ConcurrentHashMap<>();
+
+    private final Class<?> type;
+    private final String name;
+    private final Scope scope;
+    private final Map<String, Field> configurableFields;
+    private final boolean storageAware;
+    private final boolean mutable;
+
+    private ValidatorMetadata(Class<?> type) {
+        this.type = type;
+        Validator annotation = type.getAnnotation(Validator.class);
+        this.name = annotation != null ? annotation.name() : null;
+        this.scope = annotation != null ? annotation.scope() : null;
+
+        Map<String, Field> fields = new LinkedHashMap<>();
+        boolean mutableFields = false;
+        for (Field field : ReflectionUtils.getFieldsIncludingSuperclasses(type)) {
+            Configuration configAnnotation = field.getAnnotation(Configuration.class);
+            if (configAnnotation == null) {
+                // configuration is bound before validation starts
+                mutableFields |= !Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers());
+            } else {
+                AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
+                    field.setAccessible(true); // NOSONAR
+                    return null;
+                });
+                fields.put(configAnnotation.value(), field);
+            }
+        }
+        this.configurableFields = Collections.unmodifiableMap(fields);
+        this.storageAware = isStorageAware(type);
+        this.mutable = mutableFields;
+    }
+
+    private static boolean isStorageAware(Class<?> type) {
+        if (!IChangeValidator.class.isAssignableFrom(type)) {
+            return false;
+        }
+        try {
+            Method validate = type.getMethod("validate", Change.class, ChangeStorage.class);
+            return validate.getDeclaringClass() != IChangeValidator.class;
+        } catch (NoSuchMethodException e) { // NOSONAR
+            return true;
+        }
+    }
+
+    /**
+     * Returns the metadata of the given validator class.
+     *
+     * @param type
+     *            the validator class
+     * @return the validator metadata
+     */
+    public static ValidatorMetadata of(Class<?> type) {
+        return REGISTRY.computeIfAbsent(type, ValidatorMetadata::new);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the rule name of the validator.
+     *
+     * @return the validator name or {@code null} if the class lacks of
+     *         {@link Validator} annotation
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the scope of the validator.
+     *
+     * @return the validator scope or {@code null} if the class lacks of
+     *         {@link Validator} annotation
+     */
+    public Scope getScope() {
+        return scope;
+    }
+
+    /**
+     * Returns if the class has the {@link Validator} annotation.
+     *
+     * @return {@code true} if the class is annotated, {@code false} otherwise
+     */
+    public boolean isAnnotated() {
+        return name != null;
+    }
+
+    /**
+     * Returns if the validator can run concurrently with other validations
+     * without depending on the order of changes.
+     * <p>
+     * That is true for validators with instance scope that do not use the
+     * information collected in the {@link ChangeStorage}. The same instance
+     * is shared between concurrent validations, so validators that have non
+     * final fields, other than {@link Configuration} fields, are never
+     * considered stateless.
+     *
+     * @return {@code true} if the validator is stateless, {@code false}
+     *         otherwise
+     */
+    public boolean isStateless() {
+        return scope == Scope.INSTANCE && !storageAware && !mutable;
+    }
+
+    /**
+     * Returns the fields annotated with {@link Configuration} mapped by their
+     * configuration key.
+     *
+     * @return an unmodifiable map of configurable fields
+     */
+    public Map<String, Field> getConfigurableFields() {
+        return configurableFields;
+    }
+
+    /**
+     * Sets the configurable fields of the given validator with the value of
+     * the parameters named as {@code <validator name>.<configuration key>}.
+     *
+     * @param validator
+     *            to configure
+     * @param parameters
+     *            the configuration parameters
+     */
+    public void configure(Object validator, Map<String, String> parameters) {
+        for (Map.Entry<String, Field> entry : configurableFields.entrySet()) {
+            String key = name + "." + entry.getKey();
+            if (parameters.containsKey(key)) {
+                try {
+                    entry.getValue().set(validator, parameters.get(key)); // NOSONAR
+                } catch (IllegalAccessException e) { // NOSONAR
+                    throw new IllegalStateException("Can not configure validator " + name + " with key " + key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns if this validator is switched off by the given rules.
+     *
+     * @param ignoreRules
+     *            the rules to ignore
+     * @return {@code true} if the validator name is in the ignore rules
+     */
+    public boolean isIgnored(Collection<String> ignoreRules) {
+        return name != null && ignoreRules != null && ignoreRules.contains(name);
+    }
+
+    @Override
+    public String toString() {
+        return name != null ? name : type.getName();
+    }
+}
@@ -15,15 +15,33 @@
  */
 package com.github.nfalco79.maven.liquibase.plugin.validator.listener;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.stream.Stream;
 
+import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ConstraintInfo.ConstraintType;
+
 /**
  * Store every information about Liquibase changes that the listeners detect.
+ * <p>
+ * Beside the map of information, the storage keeps a schema model where
+ * columns and constraints are indexed by table so that lookups of a column,
+ * of all columns of a table or of a constraint do not need to scan all
+ * entries. Information must be added or
+ * removed using {@link #put(IStorageKey, IStorageInfo)} and
+ * {@link #remove(Object)} to keep the schema model in sync, renames must be
+ * done through {@link #renameTable(String, String)} and
+ * {@link #renameColumn(String, String, String)} so that entries are moved
+ * under their new key.
  */
 public class ChangeStorage extends HashMap<IStorageKey, IStorageInfo> {
     private static final long serialVersionUID = -5680492032263567777L;
 
+    private Map<String, TableInfo> tables = new HashMap<>();
+
     /**
      * Filter {@link IStorageKey} by implementation and with the matches key.
      *
@@ -34,19 +52,326 @@ public class ChangeStorage extends HashMap<IStorageKey, IStorageInfo> {
      */
     @SuppressWarnings("unchecked")
     public <T extends IStorageInfo> Stream<T> filterBy(Class<T> clazz, IStorageKey key) {
-        return entrySet().stream() //
-                .filter(e -> clazz.equals(e.getValue().getClass())) //
-                .filter(e -> key.equals(e.getKey())) //
-                .map(e -> (T) e.getValue());
+        if (ColumnInfo.class.equals(clazz)) {
+            if (key instanceof ColumnKey) {
+                ColumnKey columnKey = (ColumnKey) key;
+                ColumnInfo column = getColumn(columnKey.getTableName(), columnKey.getColumnName());
+                return column != null ? Stream.of((T) column) : Stream.empty();
+            } else if (key instanceof TableKey) {
+                return (Stream<T>) getColumns(((TableKey) key).getTableName()).stream();
+            }
+        }
+        IStorageInfo info = get(key);
+        return info != null && clazz.equals(info.getClass()) ? Stream.of((T) info) : Stream.empty();
+    }
+
+    /**
+     * Returns the information collected about the given table.
+     *
+     * @param tableName the name of the table
+     * @return the table information or {@code null} if no column has been
+     *         registered for the table
+     */
+    public TableInfo getTable(String tableName) {
+        return tables.get(tableName);
+    }
+
+    /**
+     * Returns the information collected about the given column.
+     *
+     * @param tableName the name of the owner table
+     * @param columnName the name of the column
+     * @return the column information or {@code null} if not found
+     */
+    public ColumnInfo getColumn(String tableName, String columnName) {
+        TableInfo table = tables.get(tableName);
+        return table != null ? table.getColumn(columnName) : null;
+    }
+
+    /**
+     * Returns all columns collected for the given table.
+     *
+     * @param tableName the name of the table
+     * @return the columns of the table in order they have been added
+     */
+    public Collection<ColumnInfo> getColumns(String tableName) {
+        TableInfo table = tables.get(tableName);
+        return table != null ? table.getColumns() : Collections.emptyList();
+    }
+
+    /**
+     * Removes the given table and all its columns.
+     *
+     * @param tableName the name of the table to remove
+     */
+    public void removeTable(String tableName) {
+        TableInfo table = tables.remove(tableName);
+        if (table != null) {
+            table.getColumns().forEach(column -> super.remove(column.getKey()));
+        }
+    }
+
+    /**
+     * Renames a table moving all its columns under the new table name.
+     *
+     * @param oldTableName the current table name
+     * @param newTableName the new table name
+     */
+    public void renameTable(String oldTableName, String newTableName) {
+        TableInfo table = tables.remove(oldTableName);
+        if (table != null) {
+            table.setName(newTableName);
+            for (ColumnInfo column : table.getColumns()) {
+                super.remove(column.getKey());
+                column.setTable(newTableName);
+                super.put(column.getKey(), column);
+            }
+            tables.put(newTableName, table);
+        }
+    }
+
+    /**
+     * Renames a column of the given table, an existing column with the new
+     * name is removed.
+     *
+     * @param tableName the name of the owner table
+     * @param oldColumnName the current column name
+     * @param newColumnName the new column name
+     */
+    public void renameColumn(String tableName, String oldColumnName, String newColumnName) {
+        TableInfo table = tables.get(tableName);
+        ColumnInfo column = table != null ? table.getColumn(oldColumnName) : null;
+        if (column != null && !oldColumnName.equals(newColumnName)) {
+            ColumnInfo replaced = table.getColumn(newColumnName);
+            if (replaced != null) {
+                remove(replaced.getKey());
+            }
+            super.remove(column.getKey());
+            column.setName(newColumnName);
+            super.put(column.getKey(), column);
+            table.renameColumn(oldColumnName, newColumnName);
+        }
+    }
+
+    /**
+     * Updates the row and index key size of a column and the sizes of its
+     * table by the difference with the previous column size.
+     *
+     * @param column the column to resize
+     * @param rowSize the new column row size
+     * @param keySize the new column index key size
+     */
+    public void resizeColumn(ColumnInfo column, int rowSize, int keySize) {
+        TableInfo table = tables.get(column.getTable());
+        if (table != null) {
+            table.resizeColumn(column, rowSize, keySize);
+        } else {
+            column.setRowSize(rowSize);
+            column.setKeySize(keySize);
+        }
+    }
+
+    /**
+     * Returns the row size of the given table.
+     *
+     * @param tableName the name of the table
+     * @return the sum of the row size of all table columns
+     */
+    public int getRowSize(String tableName) {
+        TableInfo table = tables.get(tableName);
+        return table != null ? table.getRowSize() : 0;
+    }
+
+    /**
+     * Returns the index key size of the given table.
+     *
+     * @param tableName the name of the table
+     * @return the sum of the index key size of all table columns
+     */
+    public int getKeySize(String tableName) {
+        TableInfo table = tables.get(tableName);
+        return table != null ? table.getKeySize() : 0;
+    }
+
+    /**
+     * Registers a constraint on the given columns of a table.
+     * <p>
+     * If the table already has a constraint with the same name the columns
+     * are added to the existing one. Columns not present in the storage are
+     * ignored.
+     *
+     * @param tableName the name of the owner table
+     * @param constraint the constraint to register
+     * @param columnNames the name of the columns covered by the constraint
+     * @return the registered constraint or {@code null} if none of the given
+     *         columns is present in the storage
+     */
+    public ConstraintInfo addConstraint(String tableName, ConstraintInfo constraint, Collection<String> columnNames) {
+        TableInfo table = tables.get(tableName);
+        if (table == null) {
+            return null;
+        }
+
+        ConstraintInfo registered = table.getConstraint(constraint.getName());
+        if (registered == null) {
+            registered = constraint;
+        }
+        for (String columnName : columnNames) {
+            ColumnInfo column = table.getColumn(columnName);
+            if (column != null && registered.addColumn(column)) {
+                column.getConstraints().add(registered);
+            }
+        }
+        if (registered.getColumns().isEmpty()) {
+            return null;
+        }
+        table.addConstraint(registered);
+        return registered;
+    }
+
+    /**
+     * Returns the constraint with the given name defined on a table.
+     *
+     * @param tableName the name of the owner table
+     * @param constraintName the name of the constraint
+     * @return the constraint information or {@code null} if not found
+     */
+    public ConstraintInfo getConstraint(String tableName, String constraintName) {
+        TableInfo table = tables.get(tableName);
+        return table != null ? table.getConstraint(constraintName) : null;
+    }
+
+    /**
+     * Returns all constraints of the given type defined on a table.
+     *
+     * @param tableName the name of the owner table
+     * @param type the type of constraints
+     * @return the constraints of the given type
+     */
+    public Collection<ConstraintInfo> getConstraints(String tableName, ConstraintType type) {
+        TableInfo table = tables.get(tableName);
+        return table != null ? table.getConstraints(type) : Collections.emptySet();
+    }
+
+    /**
+     * Returns all constraints that cover the given column.
+     *
+     * @param tableName the name of the owner table
+     * @param columnName the name of the column
+     * @return the constraints that involve the column
+     */
+    public Collection<ConstraintInfo> getConstraints(String tableName, String columnName) {
+        ColumnInfo column = getColumn(tableName, columnName);
+        return column != null ? Collections.unmodifiableList(column.getConstraints()) : Collections.emptyList();
+    }
+
+    /**
+     * Removes the constraint with the given name from a table and from all
+     * columns it covers.
+     *
+     * @param tableName the name of the owner table
+     * @param constraintName the name of the constraint to remove
+     * @return the removed constraint or {@code null} if not found
+     */
+    public ConstraintInfo removeConstraint(String tableName, String constraintName) {
+        TableInfo table = tables.get(tableName);
+        ConstraintInfo constraint = table != null ? table.removeConstraint(constraintName) : null;
+        if (constraint != null) {
+            constraint.getColumns().forEach(column -> column.getConstraints().remove(constraint));
+        }
+        return constraint;
+    }
+
+    /**
+     * Removes all constraints of the given type from a table.
+     *
+     * @param tableName the name of the owner table
+     * @param type the type of constraints to remove
+     */
+    public void removeConstraints(String tableName, ConstraintType type) {
+        TableInfo table = tables.get(tableName);
+        if (table != null) {
+            for (ConstraintInfo constraint : new ArrayList<>(table.getConstraints(type))) {
+                removeConstraint(tableName, constraint.getName());
+            }
+        }
+    }
+
+    @Override
+    public IStorageInfo put(IStorageKey key, IStorageInfo value) {
+        IStorageInfo previous = super.put(key, value);
+        if (previous instanceof ColumnInfo) {
+            unindex((ColumnInfo) previous);
+        }
+        if (value instanceof ColumnInfo) {
+            index((ColumnInfo) value);
+        }
+        return previous;
+    }
+
+    @Override
+    public void putAll(Map<? extends IStorageKey, ? extends IStorageInfo> m) {
+        m.forEach(this::put);
+    }
+
+    @Override
+    public IStorageInfo remove(Object key) {
+        IStorageInfo removed = super.remove(key);
+        if (removed instanceof ColumnInfo) {
+            unindex((ColumnInfo) removed);
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        tables.clear();
     }
 
     @Override
     public boolean containsKey(Object key) {
-        return keySet().stream().anyMatch(key::equals);
+        if (key instanceof ColumnKey) {
+            ColumnKey columnKey = (ColumnKey) key;
+            return getColumn(columnKey.getTableName(), columnKey.getColumnName()) != null;
+        } else if (key instanceof TableKey) {
+            return tables.containsKey(((TableKey) key).getTableName());
+        }
+        return super.containsKey(key);
     }
 
     @Override
-    public boolean containsValue(Object value) {
-        return values().stream().anyMatch(value::equals);
+    public ChangeStorage clone() {
+        ChangeStorage clone = (ChangeStorage) super.clone();
+        // the schema model must not be shared with the clone
+        clone.tables = new HashMap<>();
+        clone.values().stream() //
+            .filter(ColumnInfo.class::isInstance) //
+            .forEach(info -> clone.index((ColumnInfo) info));
+        return clone;
+    }
+
+    private void index(ColumnInfo column) {
+        TableInfo table = tables.computeIfAbsent(column.getTable(), TableInfo::new);
+        table.addColumn(column);
+        // a column could come with its constraints (for example on clone)
+        column.getConstraints().forEach(table::addConstraint);
+    }
+
+    private void unindex(ColumnInfo column) {
+        TableInfo table = tables.get(column.getTable());
+        if (table != null && table.getColumn(column.getName()) == column) {
+            // detach the column from constraints, a constraint without columns does not exist anymore
+            for (ConstraintInfo constraint : column.getConstraints()) {
+                constraint.removeColumn(column);
+                if (constraint.getColumns().isEmpty()) {
+                    table.removeConstraint(constraint.getName());
+                }
+            }
+            table.removeColumn(column.getName());
+            if (table.isEmpty()) {
+                tables.remove(table.getName());
+            }
+        }
     }
 }
@@ -15,6 +15,7 @@
  */
 package com.github.nfalco79.maven.liquibase.plugin.validator.listener;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -22,8 +23,24 @@ import java.util.Objects;
 /**
  * Class to collect information about a column.
  */
-public class ColumnInfo implements IStorageInfo {
-    private class ColumnInfoKey implements IStorageKey {
+public class ColumnInfo implements IStorageInfo, Serializable {
+    private static final long serialVersionUID = 2364907163815069227L;
+
+    /**
+     * Immutable key of a column, it captures the table and column name at the
+     * time the key is created so that its hash does not change if the column
+     * is renamed while stored.
+     */
+    private static final class ColumnInfoKey implements IStorageKey, Serializable {
+        private static final long serialVersionUID = -3527183930519542914L;
+
+        private final String table;
+        private final String name;
+
+        private ColumnInfoKey(String table, String name) {
+            this.table = table;
+            this.name = name;
+        }
 
         public String getTable() {
             return table;
@@ -89,6 +106,8 @@ public class ColumnInfo implements IStorageInfo {
     private String oldType;
     private String length;
     private List<ConstraintInfo> constraints = new ArrayList<ConstraintInfo>();
+    private int rowSize;
+    private int keySize;
 
     /**
      * Default constructor. Storage all column informations to be used by
@@ -158,9 +177,46 @@ public class ColumnInfo implements IStorageInfo {
         this.constraints = constraints; // NOSONAR
     }
 
+    /**
+     * Returns the size that this column occupies in a table row, as computed
+     * by the last size update of the storage.
+     *
+     * @return the column row size in bytes
+     */
+    public int getRowSize() {
+        return rowSize;
+    }
+
+    /* package */ void setRowSize(int rowSize) {
+        this.rowSize = rowSize;
+    }
+
+    /**
+     * Returns the size that this column occupies in an index key, as computed
+     * by the last size update of the storage.
+     *
+     * @return the column key size in bytes
+     */
+    public int getKeySize() {
+        return keySize;
+    }
+
+    /* package */ void setKeySize(int keySize) {
+        this.keySize = keySize;
+    }
+
+    /**
+     * Returns the key of this column based on the current table and column
+     * name.
+     * <p>
+     * When a stored column is renamed the change must be done through
+     * {@link ChangeStorage} so that the entry is moved under the new key.
+     *
+     * @return an immutable key for the current column name
+     */
     @Override
     public IStorageKey getKey() {
-        return new ColumnInfoKey();
+        return new ColumnInfoKey(table, name);
     }
 
     @Override
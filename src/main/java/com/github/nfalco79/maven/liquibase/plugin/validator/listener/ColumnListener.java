@@ -16,7 +16,6 @@
 package com.github.nfalco79.maven.liquibase.plugin.validator.listener;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import com.github.nfalco79.maven.liquibase.plugin.util.StringUtil;
 
@@ -67,48 +66,39 @@ public class ColumnListener implements IChangeListener {
     }
 
     private void handle(ChangeStorage storage, DropTableChange dropTable) {
-        TableKey key = new TableKey(dropTable.getTableName());
-        storage.keySet().removeIf(k -> k.equals(key));
+        storage.removeTable(dropTable.getTableName());
     }
 
     private void handle(ChangeStorage storage, ModifyDataTypeChange modifyType) {
         String newDataType = modifyType.getNewDataType();
-        String type = StringUtil.removeParam(newDataType);
-        String length = StringUtil.getParam(newDataType);
-
-        storage.filterBy(ColumnInfo.class, new ColumnKey(modifyType.getTableName(), modifyType.getColumnName())) //
-            .forEach(info -> {
-                info.setType(type);
-                info.setLength(length);
-            });
+
+        ColumnInfo info = storage.getColumn(modifyType.getTableName(), modifyType.getColumnName());
+        if (info != null) {
+            info.setType(StringUtil.removeParam(newDataType));
+            info.setLength(StringUtil.getParam(newDataType));
+        }
     }
 
     private void handle(ChangeStorage storage, DropNotNullConstraintChange dropNotNull) {
-        storage.filterBy(ColumnInfo.class, new ColumnKey(dropNotNull.getTableName(), dropNotNull.getColumnName())) //
-                .forEach(info -> info.setNullable(true));
+        ColumnInfo info = storage.getColumn(dropNotNull.getTableName(), dropNotNull.getColumnName());
+        if (info != null) {
+            info.setNullable(true);
+        }
     }
 
     private void handle(ChangeStorage storage, AddNotNullConstraintChange addNotNull) {
-        storage.filterBy(ColumnInfo.class, new ColumnKey(addNotNull.getTableName(), addNotNull.getColumnName())) //
-                .forEach(info -> info.setNullable(false));
+        ColumnInfo info = storage.getColumn(addNotNull.getTableName(), addNotNull.getColumnName());
+        if (info != null) {
+            info.setNullable(false);
+        }
     }
 
     private void handle(ChangeStorage storage, RenameColumnChange renameColumn) {
-        String newColumnName = renameColumn.getNewColumnName();
-        String oldColumnName = renameColumn.getOldColumnName();
-
-        storage.filterBy(ColumnInfo.class, new ColumnKey(renameColumn.getTableName(), oldColumnName)) //
-                .forEach(info -> info.setName(newColumnName));
+        storage.renameColumn(renameColumn.getTableName(), renameColumn.getOldColumnName(), renameColumn.getNewColumnName());
     }
 
     private void handle(ChangeStorage storage, RenameTableChange renameTable) {
-        String newTableName = renameTable.getNewTableName();
-        String oldTableName = renameTable.getOldTableName();
-
-        List<ColumnInfo> a = storage.filterBy(ColumnInfo.class, new TableKey(oldTableName)).collect(Collectors.toList());
-        for (ColumnInfo info : a) {
-                info.setTable(newTableName);
-        }
+        storage.renameTable(renameTable.getOldTableName(), renameTable.getNewTableName());
     }
 
     private void handle(ChangeStorage storage, AddColumnChange addColumn) {
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin.validator.listener;
+
+import java.util.List;
+
+import com.github.nfalco79.maven.liquibase.plugin.validator.IColumnRowSize;
+
+import liquibase.change.Change;
+import liquibase.change.ColumnConfig;
+import liquibase.change.core.AddColumnChange;
+import liquibase.change.core.CreateTableChange;
+import liquibase.change.core.ModifyDataTypeChange;
+
+/**
+ * Listener that keeps the row and index key size of columns and tables up to
+ * date.
+ * <p>
+ * Only the columns involved in the change are measured, the table row and
+ * index key size are updated by difference. Must be registered after the {@link ColumnListener}.
+ */
+public class ColumnSizeListener implements IChangeListener {
+
+    private final IColumnRowSize extractor;
+
+    /**
+     * Constructs an instance of this class.
+     *
+     * @param extractor
+     *            the strategy to compute the size of columns
+     */
+    public ColumnSizeListener(IColumnRowSize extractor) {
+        this.extractor = extractor;
+    }
+
+    @Override
+    public void updateStorage(Change change, ChangeStorage storage) {
+        if (change instanceof CreateTableChange) {
+            CreateTableChange createTable = (CreateTableChange) change;
+            resize(storage, createTable.getTableName(), createTable.getColumns());
+        } else if (change instanceof AddColumnChange) {
+            AddColumnChange addColumn = (AddColumnChange) change;
+            resize(storage, addColumn.getTableName(), addColumn.getColumns());
+        } else if (change instanceof ModifyDataTypeChange) {
+            ModifyDataTypeChange modifyType = (ModifyDataTypeChange) change;
+            resize(storage, storage.getColumn(modifyType.getTableName(), modifyType.getColumnName()));
+        }
+    }
+
+    private void resize(ChangeStorage storage, String tableName, List<? extends ColumnConfig> columns) {
+        for (ColumnConfig col : columns) {
+            resize(storage, storage.getColumn(tableName, col.getName()));
+        }
+    }
+
+    private void resize(ChangeStorage storage, ColumnInfo column) {
+        if (column != null) {
+            storage.resizeColumn(column, extractor.getRowSize(column), extractor.getSize(column));
+        }
+    }
+
+    @Override
+    public boolean applyTo(Change change) {
+        return change instanceof CreateTableChange // NOSONAR
+                || change instanceof AddColumnChange //
+                || change instanceof ModifyDataTypeChange;
+    }
+
+}
@@ -15,15 +15,23 @@
  */
 package com.github.nfalco79.maven.liquibase.plugin.validator.listener;
 
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Objects;
+import java.util.Set;
 
 import org.apache.commons.lang3.RandomStringUtils;
 
 /**
  * Class to collect information about a column.
  */
-public class ConstraintInfo implements IStorageInfo {
-    private class ConstraintInfoKey implements IStorageKey {
+public class ConstraintInfo implements IStorageInfo, Serializable {
+    private static final long serialVersionUID = 6911307652086262425L;
+
+    private class ConstraintInfoKey implements IStorageKey, Serializable {
+        private static final long serialVersionUID = -4417529383613282391L;
 
         public String getName() {
             return name;
@@ -72,6 +80,7 @@ public class ConstraintInfo implements IStorageInfo {
 
     private String name;
     private ConstraintType type;
+    private final Set<ColumnInfo> columns = new LinkedHashSet<>();
 
     /**
      * Default constructor. Storage the basic column constraint informations to be used by
@@ -109,6 +118,23 @@ public class ConstraintInfo implements IStorageInfo {
         this.type = type;
     }
 
+    /**
+     * Returns the columns involved by this constraint.
+     *
+     * @return an unmodifiable view of the columns covered by this constraint
+     */
+    public Collection<ColumnInfo> getColumns() {
+        return Collections.unmodifiableSet(columns);
+    }
+
+    /* package */ boolean addColumn(ColumnInfo column) {
+        return columns.add(column);
+    }
+
+    /* package */ boolean removeColumn(ColumnInfo column) {
+        return columns.remove(column);
+    }
+
     @Override
     public IStorageKey getKey() {
         return new ConstraintInfoKey();
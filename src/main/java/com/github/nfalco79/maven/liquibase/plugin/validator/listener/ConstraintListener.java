@@ -15,8 +15,10 @@
  */
 package com.github.nfalco79.maven.liquibase.plugin.validator.listener;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -71,115 +73,64 @@ public class ConstraintListener implements IChangeListener {
     }
 
     private void handle(ChangeStorage storage, DropUniqueConstraintChange dropUnique) {
-        String tableName = dropUnique.getTableName();
-        String constraintName = dropUnique.getConstraintName();
-
-        storage.filterBy(ColumnInfo.class, new TableKey(tableName)).forEach(info -> {
-            List<ConstraintInfo> constraints = info.getConstraints();
-            constraints.removeIf(con -> (con.getName().equals(constraintName)));
-        });
+        storage.removeConstraint(dropUnique.getTableName(), dropUnique.getConstraintName());
     }
 
     private void handle(ChangeStorage storage, DropForeignKeyConstraintChange dropForeignKey) {
-        String tableName = dropForeignKey.getBaseTableName();
-        String constraintName = dropForeignKey.getConstraintName();
-
-        storage.filterBy(ColumnInfo.class, new TableKey(tableName)).forEach(info -> {
-            List<ConstraintInfo> constraints = info.getConstraints();
-            constraints.removeIf(con -> (con.getName().equals(constraintName)));
-        });
+        storage.removeConstraint(dropForeignKey.getBaseTableName(), dropForeignKey.getConstraintName());
     }
 
     private void handle(ChangeStorage storage, DropAllForeignKeyConstraintsChange dropAllForeignKeys) {
-        String tableName = dropAllForeignKeys.getBaseTableName();
-
-        storage.filterBy(ColumnInfo.class, new TableKey(tableName)).forEach(info -> {
-            List<ConstraintInfo> constraints = info.getConstraints();
-            constraints.removeIf(con -> (con.getType() == ConstraintType.FOREIGN_KEY));
-        });
+        storage.removeConstraints(dropAllForeignKeys.getBaseTableName(), ConstraintType.FOREIGN_KEY);
     }
 
     private void handle(ChangeStorage storage, DropPrimaryKeyChange dropPrimaryKey) {
         String tableName = dropPrimaryKey.getTableName();
         String constraintName = dropPrimaryKey.getConstraintName();
 
-        storage.filterBy(ColumnInfo.class, new TableKey(tableName)).forEach(info -> {
-            List<ConstraintInfo> constraints = info.getConstraints();
-            constraints.removeIf(con -> (con.getName().equals(constraintName) || con.getType() == ConstraintType.PRIMARY_KEY));
-        });
+        if (constraintName != null) {
+            storage.removeConstraint(tableName, constraintName);
+        }
+        // a table has only one primary key, regardless of its name
+        storage.removeConstraints(tableName, ConstraintType.PRIMARY_KEY);
     }
 
     private void handle(ChangeStorage storage, DropIndexChange dropIndex) {
-        String tableName = dropIndex.getTableName();
-        String constraintName = dropIndex.getIndexName();
-
-        storage.filterBy(ColumnInfo.class, new TableKey(tableName)).forEach(info -> {
-            List<ConstraintInfo> constraints = info.getConstraints();
-            constraints.removeIf(con -> (con.getName().equals(constraintName)));
-        });
+        storage.removeConstraint(dropIndex.getTableName(), dropIndex.getIndexName());
     }
 
     private void handle(ChangeStorage storage, AddForeignKeyConstraintChange addForeignKey) {
         String tableName = addForeignKey.getBaseTableName();
-        String constraintName = addForeignKey.getConstraintName();
         String[] foreignKeyCols = addForeignKey.getBaseColumnNames().split(",\\s+");
 
-        for (String foreignKeyCol : foreignKeyCols) {
-            Optional<ColumnInfo> colInfo = storage.filterBy(ColumnInfo.class, new ColumnKey(tableName, foreignKeyCol)).findFirst();
-            if (colInfo.isPresent()) {
-                List<ConstraintInfo> consInfo = colInfo.get().getConstraints();
-                ConstraintInfo cons = new ConstraintInfo(constraintName);
-                cons.setType(ConstraintType.FOREIGN_KEY);
-                consInfo.add(cons);
-            }
-        }
+        ConstraintInfo cons = newConstraint(addForeignKey.getConstraintName(), ConstraintType.FOREIGN_KEY);
+        storage.addConstraint(tableName, cons, Arrays.asList(foreignKeyCols));
     }
 
     private void handle(ChangeStorage storage, AddPrimaryKeyChange addPrimaryKey) {
         String tableName = addPrimaryKey.getTableName();
-        String constraintName = addPrimaryKey.getConstraintName();
         String[] primaryKeyCols = addPrimaryKey.getColumnNames().split(",\\s+");
 
-        for (String primaryKeyCol : primaryKeyCols) {
-            Optional<ColumnInfo> colInfo = storage.filterBy(ColumnInfo.class, new ColumnKey(tableName, primaryKeyCol)).findFirst();
-            if (colInfo.isPresent()) {
-                List<ConstraintInfo> consInfo = colInfo.get().getConstraints();
-                ConstraintInfo cons = constraintName != null ? new ConstraintInfo(constraintName) : new ConstraintInfo();
-                cons.setType(ConstraintType.PRIMARY_KEY);
-                consInfo.add(cons);
-            }
-        }
+        ConstraintInfo cons = newConstraint(addPrimaryKey.getConstraintName(), ConstraintType.PRIMARY_KEY);
+        storage.addConstraint(tableName, cons, Arrays.asList(primaryKeyCols));
     }
 
     private void handle(ChangeStorage storage, AddUniqueConstraintChange addUnique) {
         String tableName = addUnique.getTableName();
-        String constraintName = addUnique.getConstraintName();
         String[] uniqueCols = addUnique.getColumnNames().split(",\\s+");
 
-        for (String uniqueCol : uniqueCols) {
-            Optional<ColumnInfo> colInfo = storage.filterBy(ColumnInfo.class, new ColumnKey(tableName, uniqueCol)).findFirst();
-            if (colInfo.isPresent()) {
-                List<ConstraintInfo> consInfo = colInfo.get().getConstraints();
-                ConstraintInfo cons = constraintName != null ? new ConstraintInfo(constraintName) : new ConstraintInfo();
-                cons.setType(ConstraintType.INDEX);
-                consInfo.add(cons);
-            }
-        }
+        ConstraintInfo cons = newConstraint(addUnique.getConstraintName(), ConstraintType.INDEX);
+        storage.addConstraint(tableName, cons, Arrays.asList(uniqueCols));
     }
 
     private void handle(ChangeStorage storage, CreateIndexChange createIndex) {
         String tableName = createIndex.getTableName();
-        String indexName = createIndex.getIndexName();
-
-        createIndex.getColumns().forEach(col -> {
-            Optional<ColumnInfo> colInfo = storage.filterBy(ColumnInfo.class, new ColumnKey(tableName, col.getName())).findFirst();
-            if (colInfo.isPresent()) {
-                List<ConstraintInfo> consInfo = colInfo.get().getConstraints();
-                ConstraintInfo cons = indexName != null ? new ConstraintInfo(indexName) : new ConstraintInfo();
-                cons.setType(ConstraintType.INDEX);
-                consInfo.add(cons);
-            }
-        });
+        List<String> indexCols = createIndex.getColumns().stream() //
+                .map(ColumnConfig::getName) //
+                .collect(Collectors.toList());
+
+        ConstraintInfo cons = newConstraint(createIndex.getIndexName(), ConstraintType.INDEX);
+        storage.addConstraint(tableName, cons, indexCols);
     }
 
     private void handle(ChangeStorage storage, AddColumnChange addColumn) {
@@ -196,38 +147,32 @@ public class ConstraintListener implements IChangeListener {
 
     private void processColumns(ChangeStorage storage, String tableName, List<? extends ColumnConfig> columns) {
         for (ColumnConfig col : columns) {
-            String colName = col.getName();
+            List<String> colName = Collections.singletonList(col.getName());
             ConstraintsConfig constraints = col.getConstraints();
 
-            Optional<ColumnInfo> colInfo = storage.filterBy(ColumnInfo.class, new ColumnKey(tableName, colName)).findFirst();
-            if (colInfo.isPresent()) {
-                List<ConstraintInfo> consInfo = colInfo.get().getConstraints();
-
-                if (constraints != null) {
-                    if (BooleanUtils.isTrue(constraints.isPrimaryKey())) {
-                        String primaryKeyName = constraints.getPrimaryKeyName();
-                        ConstraintInfo cons = primaryKeyName != null ? new ConstraintInfo(primaryKeyName) : new ConstraintInfo();
-                        cons.setType(ConstraintType.PRIMARY_KEY);
-                        consInfo.add(cons);
-                    }
-                    if (BooleanUtils.isTrue(constraints.isUnique())) {
-                        String uniqueName = constraints.getUniqueConstraintName();
-                        ConstraintInfo cons = uniqueName != null ? new ConstraintInfo(uniqueName) : new ConstraintInfo();
-                        cons.setType(ConstraintType.INDEX);
-                        consInfo.add(cons);
-                    }
-                    if (StringUtils.isNotEmpty(constraints.getReferences())) {
-                        String foreignKeyName = constraints.getForeignKeyName();
-                        ConstraintInfo cons = foreignKeyName != null ? new ConstraintInfo(foreignKeyName) : new ConstraintInfo();
-                        cons.setType(ConstraintType.FOREIGN_KEY);
-                        consInfo.add(cons);
-                    }
+            if (constraints != null) {
+                if (BooleanUtils.isTrue(constraints.isPrimaryKey())) {
+                    ConstraintInfo cons = newConstraint(constraints.getPrimaryKeyName(), ConstraintType.PRIMARY_KEY);
+                    storage.addConstraint(tableName, cons, colName);
+                }
+                if (BooleanUtils.isTrue(constraints.isUnique())) {
+                    ConstraintInfo cons = newConstraint(constraints.getUniqueConstraintName(), ConstraintType.INDEX);
+                    storage.addConstraint(tableName, cons, colName);
+                }
+                if (StringUtils.isNotEmpty(constraints.getReferences())) {
+                    ConstraintInfo cons = newConstraint(constraints.getForeignKeyName(), ConstraintType.FOREIGN_KEY);
+                    storage.addConstraint(tableName, cons, colName);
                 }
-                storage.put(colInfo.get().getKey(), colInfo.get());
             }
         }
     }
 
+    private ConstraintInfo newConstraint(String name, ConstraintType type) {
+        ConstraintInfo cons = name != null ? new ConstraintInfo(name) : new ConstraintInfo();
+        cons.setType(type);
+        return cons;
+    }
+
     @Override
     public boolean applyTo(Change change) { // NOSONAR
         return change instanceof CreateTableChange // NOSONAR
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin.validator.listener;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ConstraintInfo.ConstraintType;
+
+/**
+ * Class to collect information about a table, its columns and constraints.
+ * <p>
+ * Columns are kept in declaration order and indexed by name, constraints are
+ * indexed by name and by type. The table row size and index key size are
+ * kept up to date when columns are added, removed or resized.
+ */
+public class TableInfo implements Serializable {
+    private static final long serialVersionUID = -1871635064127307519L;
+
+    private String name;
+    private final Map<String, ColumnInfo> columns = new LinkedHashMap<>();
+    private final Map<String, ConstraintInfo> constraints = new LinkedHashMap<>();
+    private final Map<ConstraintType, Set<ConstraintInfo>> constraintsByType = new EnumMap<>(ConstraintType.class);
+    private int rowSize;
+    private int keySize;
+
+    /**
+     * Default constructor.
+     *
+     * @param name
+     *            of this table.
+     */
+    public TableInfo(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /* package */ void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the column with the given name.
+     *
+     * @param columnName
+     *            the name of the column
+     * @return the column information or {@code null} if this table does not
+     *         have such column
+     */
+    public ColumnInfo getColumn(String columnName) {
+        return columns.get(columnName);
+    }
+
+    /**
+     * Returns all columns of this table in the order they have been added.
+     *
+     * @return an unmodifiable view of columns
+     */
+    public Collection<ColumnInfo> getColumns() {
+        return Collections.unmodifiableCollection(columns.values());
+    }
+
+    /* package */ void addColumn(ColumnInfo column) {
+        ColumnInfo previous = columns.put(column.getName(), column);
+        if (previous != null) {
+            rowSize -= previous.getRowSize();
+            keySize -= previous.getKeySize();
+        }
+        rowSize += column.getRowSize();
+        keySize += column.getKeySize();
+    }
+
+    /* package */ ColumnInfo removeColumn(String columnName) {
+        ColumnInfo column = columns.remove(columnName);
+        if (column != null) {
+            rowSize -= column.getRowSize();
+            keySize -= column.getKeySize();
+        }
+        return column;
+    }
+
+    /* package */ void resizeColumn(ColumnInfo column, int columnRowSize, int columnKeySize) {
+        if (columns.get(column.getName()) == column) {
+            rowSize += columnRowSize - column.getRowSize();
+            keySize += columnKeySize - column.getKeySize();
+        }
+        column.setRowSize(columnRowSize);
+        column.setKeySize(columnKeySize);
+    }
+
+    /**
+     * Returns the sum of the row size of all columns of this table.
+     *
+     * @return the table row size in bytes
+     */
+    public int getRowSize() {
+        return rowSize;
+    }
+
+    /**
+     * Returns the sum of the index key size of all columns of this table.
+     *
+     * @return the table index key size in bytes
+     */
+    public int getKeySize() {
+        return keySize;
+    }
+
+    /* package */ void renameColumn(String oldName, String newName) {
+        // rebuild the index to keep the column order
+        Map<String, ColumnInfo> renamed = new LinkedHashMap<>(columns.size());
+        columns.forEach((columnName, column) -> renamed.put(oldName.equals(columnName) ? newName : columnName, column));
+        columns.clear();
+        columns.putAll(renamed);
+    }
+
+    /**
+     * Returns the constraint with the given name.
+     *
+     * @param constraintName
+     *            the name of the constraint
+     * @return the constraint information or {@code null} if this table does
+     *         not have such constraint
+     */
+    public ConstraintInfo getConstraint(String constraintName) {
+        return constraints.get(constraintName);
+    }
+
+    /**
+     * Returns all constraints of the given type defined on this table.
+     *
+     * @param type
+     *            the constraint type
+     * @return an unmodifiable view of constraints of the given type
+     */
+    public Collection<ConstraintInfo> getConstraints(ConstraintType type) {
+        Set<ConstraintInfo> typed = constraintsByType.get(type);
+        return typed != null ? Collections.unmodifiableSet(typed) : Collections.emptySet();
+    }
+
+    /* package */ void addConstraint(ConstraintInfo constraint) {
+        constraints.put(constraint.getName(), constraint);
+        if (constraint.getType() != null) {
+            constraintsByType.computeIfAbsent(constraint.getType(), t -> new LinkedHashSet<>()).add(constraint);
+        }
+    }
+
+    /* package */ ConstraintInfo removeConstraint(String constraintName) {
+        ConstraintInfo constraint = constraints.remove(constraintName);
+        if (constraint != null && constraint.getType() != null) {
+            Set<ConstraintInfo> typed = constraintsByType.get(constraint.getType());
+            if (typed != null) {
+                typed.remove(constraint);
+            }
+        }
+        return constraint;
+    }
+
+    /**
+     * Returns if this table has not any column.
+     *
+     * @return {@code true} if there is not any column, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return columns.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
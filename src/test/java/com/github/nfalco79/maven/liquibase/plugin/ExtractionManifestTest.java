@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.nfalco79.maven.liquibase.plugin.ExtractionManifest.Script;
+
+public class ExtractionManifestTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void test_store_and_load() throws Exception {
+        File manifestFile = new File(folder.getRoot(), "manifest.idx");
+        File jar = folder.newFile("a.jar");
+        File target = folder.newFile("db.changelog.xml");
+        Script script = new Script("db.changelog.xml", 42, 0);
+
+        ExtractionManifest manifest = new ExtractionManifest(manifestFile, "salt");
+        manifest.putScripts(jar, Arrays.asList(script));
+        manifest.extracted(script, target);
+        manifest.store();
+
+        ExtractionManifest loaded = new ExtractionManifest(manifestFile, "salt");
+        loaded.load();
+        Assertions.assertThat(loaded.getScripts(jar)).usingElementComparatorOnFields("path", "checksum", "size").containsExactly(script);
+        Assertions.assertThat(loaded.isUpToDate(script, target)).isTrue();
+        Assertions.assertThat(loaded.isUpToDate(new Script("db.changelog.xml", 43, 0), target)).isFalse();
+
+        ExtractionManifest other = new ExtractionManifest(manifestFile, "other salt");
+        other.load();
+        Assertions.assertThat(other.getScripts(jar)).isNull();
+    }
+
+    @Test
+    public void test_changed_files_are_not_up_to_date() throws Exception {
+        File jar = folder.newFile("a.jar");
+        File target = folder.newFile("db.changelog.xml");
+        Script script = new Script("db.changelog.xml", 42, 0);
+
+        ExtractionManifest manifest = new ExtractionManifest(new File(folder.getRoot(), "manifest.idx"), "salt");
+        manifest.putScripts(jar, Arrays.asList(script));
+        manifest.extracted(script, target);
+
+        Files.write(jar.toPath(), "changed".getBytes(StandardCharsets.UTF_8));
+        Files.write(target.toPath(), "changed".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertThat(manifest.getScripts(jar)).isNull();
+        Assertions.assertThat(manifest.isUpToDate(script, target)).isFalse();
+    }
+
+    @Test
+    public void test_retain_deletes_stale_scripts() throws Exception {
+        File outputDirectory = folder.newFolder("out");
+        File stale = new File(outputDirectory, "stale.xml");
+        Files.write(stale.toPath(), "stale".getBytes(StandardCharsets.UTF_8));
+        File target = new File(outputDirectory, "db.changelog.xml");
+        Files.write(target.toPath(), "script".getBytes(StandardCharsets.UTF_8));
+
+        ExtractionManifest manifest = new ExtractionManifest(new File(outputDirectory, "manifest.idx"), "salt");
+        manifest.extracted(new Script("stale.xml", 1, 5), stale);
+        manifest.extracted(new Script("db.changelog.xml", 2, 6), target);
+
+        Assertions.assertThat(manifest.retain(Collections.emptyList(), Arrays.asList("db.changelog.xml"), outputDirectory)) //
+            .containsExactly("stale.xml");
+        Assertions.assertThat(stale).doesNotExist();
+        Assertions.assertThat(target).exists();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GitChangesTest {
+
+    @Rule
+    public TemporaryFolder fileRule = new TemporaryFolder();
+
+    private File repository;
+
+    @Before
+    public void setup() throws Exception {
+        repository = fileRule.newFolder("repo");
+        Assume.assumeTrue("git is not available", git("init", "-q"));
+        git("config", "user.email", "test@acme.com");
+        git("config", "user.name", "test");
+    }
+
+    @Test
+    public void test_modified_added_and_untracked_files_are_changed() throws Exception {
+        write("ddl/released.xml");
+        write("ddl/modified.xml");
+        write("other.xml");
+        git("add", "-A");
+        git("commit", "-q", "-m", "release");
+        git("tag", "v1");
+
+        write("ddl/modified.xml");
+        write("ddl/added.xml");
+        write("other.xml");
+        git("add", "-A");
+        git("commit", "-q", "-m", "change");
+        write("ddl/untracked.xml");
+
+        Assertions.assertThat(GitChanges.getChangedFiles(new File(repository, "ddl"), "v1")) //
+            .containsOnly("modified.xml", "added.xml", "untracked.xml");
+    }
+
+    @Test(expected = IOException.class)
+    public void test_unknown_reference() throws Exception {
+        write("ddl/released.xml");
+        git("add", "-A");
+        git("commit", "-q", "-m", "release");
+
+        GitChanges.getChangedFiles(repository, "unknown");
+    }
+
+    private void write(String path) throws IOException {
+        File file = new File(repository, path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), String.valueOf(System.nanoTime()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private boolean git(String... args) throws Exception {
+        String[] command = new String[args.length + 1];
+        command[0] = "git";
+        System.arraycopy(args, 0, command, 1, args.length);
+        try {
+            Process process = new ProcessBuilder(command).directory(repository).inheritIO().start();
+            return process.waitFor(30, TimeUnit.SECONDS) && process.exitValue() == 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin;
+
+import java.io.File;
+
+import org.assertj.core.api.Assertions;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.nfalco79.maven.liquibase.plugin.resource.SourceResourceAccessor;
+
+public class IncludeGraphTest {
+
+    @Rule
+    public TemporaryFolder fileRule = new TemporaryFolder();
+
+    @Test
+    public void test_included_changelogs_are_not_roots() throws Exception {
+        File source = new File(getClass().getResource("ddl/db.changelog-master.xml").toURI()).getParentFile();
+        String[] changeLogs = { path("module1/db.changelog-column.xml"), //
+            path("module1/db.changelog.xml"), //
+            path("module2/db.changelog-column.xml"), //
+            path("module2/db.changelog.xml"), //
+            "db.changelog-master.xml" };
+
+        IncludeGraph graph = IncludeGraph.build(source, changeLogs, new SourceResourceAccessor(source));
+
+        Assertions.assertThat(graph.getRoots()).containsExactly("db.changelog-master.xml");
+        Assertions.assertThat(graph.getIncludes("db.changelog-master.xml")) //
+            .containsExactly(path("module1/db.changelog.xml"), path("module2/db.changelog.xml"));
+        Assertions.assertThat(graph.getIncludes(path("module2/db.changelog.xml"))) //
+            .containsExactly(path("module2/db.changelog-column.xml"));
+    }
+
+    @Test
+    public void test_changelogs_without_includes_are_roots() throws Exception {
+        File source = new File(getClass().getResource("ddl/db.changelog-master.xml").toURI()).getParentFile();
+        String[] changeLogs = { path("module1/db.changelog-column.xml"), path("module2/db.changelog-column.xml") };
+
+        IncludeGraph graph = IncludeGraph.build(source, changeLogs, new SourceResourceAccessor(source));
+
+        Assertions.assertThat(graph.getRoots()).containsExactly(changeLogs);
+    }
+
+    @Test
+    public void test_included_changelogs_precede_in_execution_order() throws Exception {
+        File source = new File(getClass().getResource("ddl/db.changelog-master.xml").toURI()).getParentFile();
+        String[] changeLogs = { "db.changelog-master.xml", //
+            path("module2/db.changelog.xml"), //
+            path("module2/db.changelog-column.xml"), //
+            path("module1/db.changelog.xml"), //
+            path("module1/db.changelog-column.xml") };
+
+        IncludeGraph graph = IncludeGraph.build(source, changeLogs, new SourceResourceAccessor(source));
+
+        Assertions.assertThat(graph.getExecutionOrder()).containsExactly(path("module1/db.changelog-column.xml"), //
+            path("module1/db.changelog.xml"), //
+            path("module2/db.changelog-column.xml"), //
+            path("module2/db.changelog.xml"), //
+            "db.changelog-master.xml");
+    }
+
+    @Test
+    public void test_stored_graph_is_reused() throws Exception {
+        File source = new File(getClass().getResource("ddl/db.changelog-master.xml").toURI()).getParentFile();
+        String[] changeLogs = { path("module2/db.changelog-column.xml"), //
+            path("module2/db.changelog.xml"), //
+            "db.changelog-master.xml" };
+        File graphFile = new File(fileRule.getRoot(), "include-graph.idx");
+
+        IncludeGraph.build(source, changeLogs, new SourceResourceAccessor(source)).store(graphFile);
+        IncludeGraph previous = IncludeGraph.load(source, graphFile);
+
+        Assertions.assertThat(previous.getExecutionOrder()).containsExactly(changeLogs);
+        Assertions.assertThat(previous.getIncludes(path("module2/db.changelog.xml"))) //
+            .containsExactly(path("module2/db.changelog-column.xml"));
+
+        // unchanged files are not read again
+        IncludeGraph graph = IncludeGraph.build(source, changeLogs, null, previous);
+        Assertions.assertThat(graph.getRoots()).containsExactly("db.changelog-master.xml");
+    }
+
+    @Test
+    public void test_load_of_graph_of_other_source_is_empty() throws Exception {
+        File source = new File(getClass().getResource("ddl/db.changelog-master.xml").toURI()).getParentFile();
+        File graphFile = new File(fileRule.getRoot(), "include-graph.idx");
+        IncludeGraph.build(source, new String[] { "db.changelog-master.xml" }, new SourceResourceAccessor(source)).store(graphFile);
+
+        IncludeGraph graph = IncludeGraph.load(fileRule.getRoot(), graphFile);
+
+        Assertions.assertThat(graph.getRoots()).isEmpty();
+    }
+
+    @Test
+    public void test_changelogs_with_include_all_are_dynamic() throws Exception {
+        File source = fileRule.newFolder("source");
+        new File(source, "changes").mkdir();
+        FileUtils.fileWrite(new File(source, "master.xml"), "UTF-8", "<databaseChangeLog><includeAll path=\"changes/\" relativeToChangelogFile=\"true\"/></databaseChangeLog>");
+        FileUtils.fileWrite(new File(source, "wrapper.xml"), "UTF-8", "<databaseChangeLog><include file=\"master.xml\" relativeToChangelogFile=\"true\"/></databaseChangeLog>");
+        FileUtils.fileWrite(new File(source, "changes/a.xml"), "UTF-8", "<databaseChangeLog/>");
+        FileUtils.fileWrite(new File(source, "other.xml"), "UTF-8", "<databaseChangeLog/>");
+        String[] changeLogs = { "wrapper.xml", "master.xml", path("changes/a.xml"), "other.xml" };
+
+        IncludeGraph graph = IncludeGraph.build(source, changeLogs, new SourceResourceAccessor(source));
+
+        Assertions.assertThat(graph.isDynamic("master.xml")).isTrue();
+        Assertions.assertThat(graph.isDynamic("wrapper.xml")).isTrue();
+        Assertions.assertThat(graph.isDynamic(path("changes/a.xml"))).isFalse();
+        Assertions.assertThat(graph.isDynamic("other.xml")).isFalse();
+    }
+
+    private String path(String path) {
+        return path.replace('/', File.separatorChar);
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.maven.plugin.logging.Log;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import com.github.nfalco79.maven.liquibase.plugin.validator.ValidationError;
+
+public class IssueSinkTest {
+
+    @Test
+    public void test_issues_are_printed_grouped_by_file() {
+        Log log = mock(Log.class);
+        List<ValidationError> issues = new ArrayList<>();
+
+        IssueSink sink = new IssueSink(log, true, 0, issues);
+        sink.acceptAll(Arrays.asList(newIssue("a.xml", "1"), newIssue("a.xml", "2"), newIssue("b.xml", "3")));
+
+        InOrder order = inOrder(log);
+        order.verify(log).error("There are violations on changelog a.xml");
+        order.verify(log).error("ChangeSet 1, has a violation: message");
+        order.verify(log).error("ChangeSet 2, has a violation: message");
+        order.verify(log).error("There are violations on changelog b.xml");
+        order.verify(log).error("ChangeSet 3, has a violation: message");
+        Assertions.assertThat(sink.getCount()).isEqualTo(3);
+        Assertions.assertThat(sink.isFull()).isFalse();
+        Assertions.assertThat(issues).hasSize(3);
+        Assertions.assertThat(issues.get(1).getFile()).isSameAs(issues.get(0).getFile());
+    }
+
+    @Test
+    public void test_issues_over_the_limit_are_discarded() {
+        Log log = mock(Log.class);
+        List<ValidationError> issues = new ArrayList<>();
+
+        IssueSink sink = new IssueSink(log, false, 2, issues);
+        sink.acceptAll(Arrays.asList(newIssue("a.xml", "1"), newIssue("a.xml", "2"), newIssue("a.xml", "3")));
+
+        verify(log).warn("ChangeSet 2, has a violation: message");
+        verify(log, never()).warn("ChangeSet 3, has a violation: message");
+        Assertions.assertThat(sink.getCount()).isEqualTo(2);
+        Assertions.assertThat(sink.isFull()).isTrue();
+        Assertions.assertThat(issues).hasSize(2);
+    }
+
+    private ValidationError newIssue(String file, String changeSetId) {
+        return new ValidationError() //
+                .setFile(new String(file)) //
+                .setChangeSetId(changeSetId) //
+                .setMessage("message");
+    }
+
+}
@@ -27,8 +27,11 @@ import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -153,6 +156,84 @@ public class MergeChangeLogsMojoTest {
         Assertions.assertThatThrownBy(() -> mojo.execute()).hasMessage("Fail to download artifact " + artifact.toString() + ", size is 0");
     }
 
+    @Test
+    public void test_parallel_extraction_follows_dependency_order() throws Exception {
+        MergeChangeLogsMojo mojo = defaultMojo(buildMavenProject("g", "a", "1"));
+        mojo.setThreads(4);
+
+        DefaultArtifact a1 = MavenUtils.buildArtifact("com.acme", "a1", "1.0");
+        a1.setFile(buildJar("com/acme/db.changelog.xml", "a1", "com/acme/a1/db.changelog.xml", "a1"));
+        DefaultArtifact a2 = MavenUtils.buildArtifact("com.acme", "a2", "1.0");
+        a2.setFile(buildJar("com/acme/a2/db.changelog.xml", "a2"));
+        DefaultArtifact a3 = MavenUtils.buildArtifact("com.acme", "a3", "1.0");
+        a3.setFile(buildJar("com/acme/db.changelog.xml", "a3"));
+
+        File outputDirectory = mojo.getOutputDirectory();
+        Collection<File> scripts = mojo.extractScripts(Arrays.asList(a1, a2, a3), outputDirectory);
+
+        Assertions.assertThat(scripts).containsExactly(new File(outputDirectory, "com/acme/db.changelog.xml"), //
+                new File(outputDirectory, "com/acme/a1/db.changelog.xml"), //
+                new File(outputDirectory, "com/acme/a2/db.changelog.xml"));
+        // the script of the last artifact in dependency order wins
+        Assertions.assertThat(new File(outputDirectory, "com/acme/db.changelog.xml")).hasContent("a3");
+    }
+
+    @Test
+    public void test_unchanged_scripts_are_not_extracted_again() throws Exception {
+        MergeChangeLogsMojo mojo = defaultMojo(buildMavenProject("g", "a", "1"));
+
+        DefaultArtifact a1 = MavenUtils.buildArtifact("com.acme", "a1", "1.0");
+        a1.setFile(buildJar("com/acme/a1/db.changelog.xml", "a1"));
+        DefaultArtifact a2 = MavenUtils.buildArtifact("com.acme", "a2", "1.0");
+        a2.setFile(buildJar("com/acme/a2/db.changelog.xml", "a2"));
+
+        File outputDirectory = mojo.getOutputDirectory();
+        mojo.extractScripts(Arrays.asList(a1, a2), outputDirectory);
+        File script1 = new File(outputDirectory, "com/acme/a1/db.changelog.xml");
+        File script2 = new File(outputDirectory, "com/acme/a2/db.changelog.xml");
+        Assertions.assertThat(script1.setLastModified(1000L)).isTrue();
+
+        // the extracted file has been changed so it is not tracked anymore
+        Collection<File> scripts = mojo.extractScripts(Arrays.asList(a1), outputDirectory);
+
+        Assertions.assertThat(scripts).containsExactly(script1);
+        Assertions.assertThat(script1).hasContent("a1");
+        Assertions.assertThat(script1.lastModified()).isNotEqualTo(1000L);
+        Assertions.assertThat(script2).doesNotExist();
+
+        long lastModified = script1.lastModified();
+        mojo.extractScripts(Arrays.asList(a1), outputDirectory);
+        Assertions.assertThat(script1.lastModified()).isEqualTo(lastModified);
+    }
+
+    @Test
+    public void test_dependency_scripts_are_included_as_classpath_resources() throws Exception {
+        MavenProject mavenProject = buildMavenProject("g", "a", "1");
+
+        MergeChangeLogsMojo mojo = defaultMojo(mavenProject);
+        mojo.setExtract(false);
+        mojo.setResources(new String[] {});
+        mojo.setChangeLogs(new String[] { "**/db.changelog.xml" });
+        mojo.execute();
+
+        Xpp3Dom dom = Xpp3DomBuilder.build(new FileReader(new File(mojo.getOutputDirectory(), mojo.getOutputChangelog())));
+        Assertions.assertThat(Stream.of(dom.getChildren("include")).map(include -> include.getAttribute("file"))) //
+            .containsExactly("com/acme/a1/db.changelog.xml", "com/acme/a2/db.changelog.xml");
+        Assertions.assertThat(new File(mojo.getOutputDirectory(), "com")).doesNotExist();
+        Assertions.assertThat(mojo.getDependencyClasspath(mojo.getOutputDirectory())).hasSize(2);
+    }
+
+    private File buildJar(String... entries) throws IOException {
+        File file = fileRule.newFile();
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(file))) {
+            for (int i = 0; i < entries.length; i += 2) {
+                zos.putNextEntry(new ZipEntry(entries[i]));
+                zos.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return file;
+    }
+
     private File buildJar(Artifact artifact) throws IOException {
         File file = fileRule.newFile();
         String logicaFilePath = (artifact.getGroupId() + "/" + artifact.getArtifactId()).replace('.', '/');
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.maven.artifact.DefaultArtifact;
+import org.assertj.core.api.Assertions;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.nfalco79.maven.MavenUtils;
+import com.github.nfalco79.maven.liquibase.plugin.ExtractionManifest.Script;
+
+public class ScriptCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void test_store_load_and_link() throws Exception {
+        DefaultArtifact artifact = MavenUtils.buildArtifact("com.acme", "a1", "1.0");
+        artifact.setFile(folder.newFile("a1.jar"));
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(artifact.getFile()))) {
+            zos.putNextEntry(new ZipEntry("com/acme/db.changelog.xml"));
+            zos.write("a1".getBytes(StandardCharsets.UTF_8));
+        }
+        Script script = new Script("com" + File.separator + "acme" + File.separator + "db.changelog.xml", 1, 2);
+
+        ScriptCache cache = new ScriptCache(folder.newFolder("cache"), "salt");
+        Assertions.assertThat(ScriptCache.isCacheable(artifact)).isTrue();
+        File cacheFolder = cache.getFolder(artifact);
+        Assertions.assertThat(cache.load(cacheFolder)).isNull();
+
+        cache.store(cacheFolder, artifact.getFile(), Arrays.asList(script));
+        List<Script> scripts = cache.load(cacheFolder);
+        Assertions.assertThat(scripts).usingElementComparatorOnFields("path", "checksum", "size").containsExactly(script);
+
+        File target = new File(folder.newFolder("out"), script.getPath());
+        cache.link(cacheFolder, script, target);
+        Assertions.assertThat(target).hasContent("a1");
+    }
+
+    @Test
+    public void test_snapshot_is_not_cacheable() throws Exception {
+        DefaultArtifact artifact = MavenUtils.buildArtifact("com.acme", "a1", "1.0-SNAPSHOT");
+        artifact.setFile(folder.newFile("a1.jar"));
+
+        Assertions.assertThat(ScriptCache.isCacheable(artifact)).isFalse();
+    }
+
+    @Test
+    public void test_patterns_are_part_of_the_key() throws Exception {
+        DefaultArtifact artifact = MavenUtils.buildArtifact("com.acme", "a1", "1.0");
+        artifact.setFile(folder.newFile("a1.jar"));
+        File root = folder.newFolder("cache");
+
+        Assertions.assertThat(new ScriptCache(root, "salt1").getFolder(artifact)) //
+            .isNotEqualTo(new ScriptCache(root, "salt2").getFolder(artifact));
+    }
+}
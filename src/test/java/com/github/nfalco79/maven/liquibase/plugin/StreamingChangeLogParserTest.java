@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import com.github.nfalco79.maven.liquibase.plugin.resource.SourceResourceAccessor;
+
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.parser.core.xml.XMLChangeLogSAXParser;
+import liquibase.resource.ResourceAccessor;
+
+public class StreamingChangeLogParserTest {
+
+    @Test
+    public void test_changesets_are_the_same_of_liquibase_parser() throws Exception {
+        File changeLogFile = new File(getClass().getResource("changelog_with_issues.xml").toURI());
+        ResourceAccessor resourceAccessor = new SourceResourceAccessor(changeLogFile.getParentFile());
+        DatabaseChangeLog expected = new XMLChangeLogSAXParser().parse(changeLogFile.getAbsolutePath(), new ChangeLogParameters(), resourceAccessor);
+
+        List<ChangeSet> changeSets = new ArrayList<>();
+        DatabaseChangeLog changeLog = new StreamingChangeLogParser().parse(changeLogFile.getAbsolutePath(), new ChangeLogParameters(), resourceAccessor, changeSets::add);
+
+        Assertions.assertThat(changeLog.getLogicalFilePath()).isEqualTo(expected.getLogicalFilePath());
+        Assertions.assertThat(changeLog.getPhysicalFilePath()).isEqualTo(expected.getPhysicalFilePath());
+        Assertions.assertThat(changeLog.getChangeSets()).isEmpty();
+        Assertions.assertThat(changeSets).isNotEmpty();
+        Assertions.assertThat(toString(changeSets)).containsExactlyElementsOf(toString(expected.getChangeSets()));
+    }
+
+    @Test
+    public void test_changesets_of_included_changelogs() throws Exception {
+        File source = new File(getClass().getResource("ddl/db.changelog-master.xml").toURI()).getParentFile();
+        File changeLogFile = new File(source, "module2/db.changelog.xml");
+        ResourceAccessor resourceAccessor = new SourceResourceAccessor(source);
+        DatabaseChangeLog expected = new XMLChangeLogSAXParser().parse(changeLogFile.getAbsolutePath(), new ChangeLogParameters(), resourceAccessor);
+
+        List<ChangeSet> changeSets = new ArrayList<>();
+        new StreamingChangeLogParser().parse(changeLogFile.getAbsolutePath(), new ChangeLogParameters(), resourceAccessor, changeSets::add);
+
+        Assertions.assertThat(changeSets).isNotEmpty();
+        Assertions.assertThat(toString(changeSets)).containsExactlyElementsOf(toString(expected.getChangeSets()));
+    }
+
+    private List<String> toString(List<ChangeSet> changeSets) {
+        return changeSets.stream() //
+                .map(cs -> cs.getFilePath() + "::" + cs.getId() + "::" + cs.getAuthor() + "::" + cs.getChanges().size()) //
+                .collect(Collectors.toList());
+    }
+
+}
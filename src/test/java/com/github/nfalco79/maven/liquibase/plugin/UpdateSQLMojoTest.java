@@ -222,6 +222,23 @@ public class UpdateSQLMojoTest {
         }
     }
 
+    @Test
+    public void test_update_in_memory() throws Exception {
+        MavenProject mavenProject = new MavenProject();
+        mavenProject.addResource(newResource("update/db.changelog.xml"));
+
+        UpdateSQLMojo mojo = defaultMojo(mavenProject);
+        mojo.setInMemory(true);
+        mojo.execute();
+
+        // no script is written to disk
+        File outputDirectory = mojo.getOutputDirectory();
+        Assertions.assertThat(!outputDirectory.exists() || outputDirectory.list().length == 0).isTrue();
+        try (Connection conn = DriverManager.getConnection(h2URL, "sa", null)) {
+            conn.prepareCall("INSERT INTO test_table(id, tenant_id) VALUES (1, 'something')").execute();
+        }
+    }
+
     private File buildJar() throws IOException {
         File file = fileRule.newFile();
         try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(file))) {
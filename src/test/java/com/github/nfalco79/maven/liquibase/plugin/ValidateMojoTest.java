@@ -42,6 +42,7 @@ import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugin.logging.SystemStreamLog;
 import org.apache.maven.project.MavenProject;
 import org.assertj.core.api.Assertions;
+import org.codehaus.plexus.util.FileUtils;
 import org.codehaus.plexus.util.IOUtil;
 import org.hamcrest.CoreMatchers;
 import org.junit.Assert;
@@ -416,6 +417,175 @@ public class ValidateMojoTest {
         verify(log, never()).warn(arguments.capture());
     }
 
+    @Test
+    public void verify_issues_of_unchanged_changelogs_are_cached() throws Exception {
+        File changelog = getResource("changelog_duplicated_index.xml");
+        File source = changelog.getParentFile();
+        File cacheDirectory = folder.newFolder("cache");
+
+        ValidateMojo mojo = spy(getMojo(source));
+        mojo.setFailOnError(false);
+        mojo.setUseCache(true);
+        mojo.setCacheDirectory(cacheDirectory);
+        doReturn(mock(SystemStreamLog.class)).when(mojo).getLog();
+        List<ValidationError> issues = new LinkedList<>();
+        doReturn(issues).when(mojo).newIssueContainer();
+
+        mojo.execute();
+        Assertions.assertThat(issues).isNotEmpty();
+        Assertions.assertThat(new File(cacheDirectory, "validation.cache")).isFile();
+
+        ValidateMojo cachedMojo = spy(getMojo(source));
+        cachedMojo.setFailOnError(false);
+        cachedMojo.setUseCache(true);
+        cachedMojo.setCacheDirectory(cacheDirectory);
+        doReturn(mock(SystemStreamLog.class)).when(cachedMojo).getLog();
+        List<ValidationError> cachedIssues = new LinkedList<>();
+        doReturn(cachedIssues).when(cachedMojo).newIssueContainer();
+
+        cachedMojo.execute();
+
+        verify(cachedMojo, never()).newValidator(any(Change.class));
+        Assertions.assertThat(cachedIssues) //
+            .usingElementComparatorOnFields("file", "message", "element", "changeSetId") //
+            .containsExactlyElementsOf(issues);
+    }
+
+    @Test
+    public void verify_included_changelogs_are_validated_once() throws Exception {
+        URL res = getClass().getResource("validator/changeset_duplicated_id.xml");
+        File source = new File(res.toURI()).getParentFile();
+
+        ValidateMojo mojo = spy(getMojo(source));
+        mojo.setFailOnError(false);
+        mojo.setFollowIncludes(true);
+        mojo.setIncludes(new String[] { "changeset_duplicated_id.xml", "duplicated_id/*.xml" });
+        doReturn(mock(SystemStreamLog.class)).when(mojo).getLog();
+        List<ValidationError> issues = new LinkedList<>();
+        doReturn(issues).when(mojo).newIssueContainer();
+
+        mojo.execute();
+
+        // only real duplicates are reported, included files are not validated again
+        Assertions.assertThat(issues).extracting(ValidationError::getMessage) //
+            .filteredOn(message -> message.contains("is already defined")) //
+            .hasSize(2) //
+            .contains("the changeSet ISSUE-100-1 is already defined in the same file") //
+            .anyMatch(message -> message.startsWith("the changeSet ISSUE-49-1 is already defined in ") && message.endsWith("duplicated_id1.xml"));
+    }
+
+    @Test
+    public void verify_validation_stops_at_first_violation_when_fail_fast() throws Exception {
+        SystemStreamLog log = mock(SystemStreamLog.class);
+
+        File changelog = getResource("changelog_with_issues.xml");
+        File source = changelog.getParentFile();
+
+        ValidateMojo mojo = spy(getMojo(source));
+        mojo.setFailOnError(false);
+        mojo.setFailFast(true);
+        doReturn(log).when(mojo).getLog();
+        List<ValidationError> issues = new LinkedList<>();
+        doReturn(issues).when(mojo).newIssueContainer();
+
+        mojo.execute();
+
+        Assertions.assertThat(issues).hasSize(1);
+        verify(log).warn("Validation stopped after 1 violations");
+    }
+
+    @Test
+    public void verify_changesets_before_validateFrom_are_only_replayed() throws Exception {
+        File changelog = getResource("changelog_validate_from.xml");
+        File source = changelog.getParentFile();
+
+        ValidateMojo mojo = spy(getMojo(source));
+        mojo.setFailOnError(false);
+        mojo.setValidateFrom("v1");
+        doReturn(mock(SystemStreamLog.class)).when(mojo).getLog();
+        List<ValidationError> issues = new LinkedList<>();
+        doReturn(issues).when(mojo).newIssueContainer();
+
+        mojo.execute();
+
+        // the replayed history is used to validate new changesets
+        Assertions.assertThat(issues).extracting(ValidationError::getMessage) //
+            .contains("The index I_DATA_ID is already defined by I_DATA_ID") //
+            .contains("the changeSet ISSUE-1-1 is already defined in the same file");
+        Assertions.assertThat(issues).extracting(ValidationError::getElement).doesNotContain("createTable");
+    }
+
+    @Test
+    public void verify_issues_of_parallel_parse_are_reported_in_scan_order() throws Exception {
+        File source = folder.newFolder("changelogs");
+        for (int i = 0; i < 20; i++) {
+            String changeLog = "<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\"" //
+                    + " xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"" //
+                    + " xsi:schemaLocation=\"http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.1.xsd\"" //
+                    + " logicalFilePath=\"com.acme.core\">" //
+                    + "<changeSet id=\"100-" + (i + 1) + "\" author=\"test\">" //
+                    + "<createTable tableName=\"T" + i + "\"><column name=\"id\" type=\"INTEGER\"/></createTable>" //
+                    + "</changeSet></databaseChangeLog>";
+            FileUtils.fileWrite(new File(source, "changelog_" + i + ".xml"), "UTF-8", changeLog);
+        }
+
+        List<ValidationError> sequentialIssues = validate(source, 1);
+        List<ValidationError> parallelIssues = validate(source, 8);
+
+        Assertions.assertThat(sequentialIssues).hasSize(20);
+        Assertions.assertThat(parallelIssues) //
+            .usingElementComparatorOnFields("file", "message", "element", "changeSetId") //
+            .containsExactlyElementsOf(sequentialIssues);
+    }
+
+    @Test
+    public void verify_parallel_parse_of_changelogs_with_include_all() throws Exception {
+        File source = folder.newFolder("changelogs");
+        for (int i = 0; i < 6; i++) {
+            File module = folder.newFolder("changelogs", "module" + i);
+            for (int j = 0; j < 3; j++) {
+                String changeSet = "<changeSet id=\"10" + i + "-" + (j + 1) + "\" author=\"test\">" //
+                        + "<createTable tableName=\"T" + i + "_" + j + "\"><column name=\"id\" type=\"INTEGER\"/></createTable>" //
+                        + "</changeSet>";
+                FileUtils.fileWrite(new File(module, "changelog_" + j + ".xml"), "UTF-8", newChangeLog(changeSet));
+            }
+            String includeAll = "<includeAll path=\"module" + i + "/\" relativeToChangelogFile=\"true\"/>";
+            FileUtils.fileWrite(new File(source, "master_" + i + ".xml"), "UTF-8", newChangeLog(includeAll));
+        }
+
+        List<ValidationError> sequentialIssues = validate(source, 1, "master_*.xml");
+        List<ValidationError> parallelIssues = validate(source, 8, "master_*.xml");
+
+        Assertions.assertThat(sequentialIssues).hasSize(18);
+        Assertions.assertThat(parallelIssues) //
+            .usingElementComparatorOnFields("file", "message", "element", "changeSetId") //
+            .containsExactlyElementsOf(sequentialIssues);
+    }
+
+    private String newChangeLog(String content) {
+        return "<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\"" //
+                + " xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"" //
+                + " xsi:schemaLocation=\"http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.1.xsd\"" //
+                + " logicalFilePath=\"com.acme.core\">" //
+                + content //
+                + "</databaseChangeLog>";
+    }
+
+    private List<ValidationError> validate(File source, int threads, String... includes) throws Exception {
+        ValidateMojo mojo = spy(getMojo(source));
+        mojo.setFailOnError(false);
+        mojo.setThreads(threads);
+        if (includes.length > 0) {
+            mojo.setIncludes(includes);
+        }
+        doReturn(mock(SystemStreamLog.class)).when(mojo).getLog();
+        List<ValidationError> issues = new LinkedList<>();
+        doReturn(issues).when(mojo).newIssueContainer();
+
+        mojo.execute();
+        return issues;
+    }
+
     private ValidateMojo getMojo(File source) {
         ValidateMojo mojo = new ValidateMojo();
         mojo.setExtension(Extension.xml);
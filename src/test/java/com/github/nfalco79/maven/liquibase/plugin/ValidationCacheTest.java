@@ -0,0 +1,128 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.nfalco79.maven.liquibase.plugin.validator.ValidationError;
+
+public class ValidationCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void test_store_and_load() throws Exception {
+        File cacheFile = new File(folder.getRoot(), "validation.cache");
+        File changelog = folder.newFile("changelog.xml");
+        List<String> files = Arrays.asList(changelog.getAbsolutePath());
+
+        ValidationError issue = new ValidationError() //
+                .setFile("changelog.xml") //
+                .setElement("createTable") //
+                .setMessage("message") //
+                .setChangeSetId("1");
+
+        ValidationCache cache = new ValidationCache(cacheFile, "salt");
+        String key = cache.newKey("", "changelog.xml", files);
+        cache.put("changelog.xml", new ValidationCache.Entry(key, files, Arrays.asList(issue)));
+        cache.store();
+
+        ValidationCache loaded = new ValidationCache(cacheFile, "salt");
+        loaded.load();
+        ValidationCache.Entry entry = loaded.get("changelog.xml");
+        Assertions.assertThat(entry).isNotNull();
+        Assertions.assertThat(entry.getKey()).isEqualTo(key);
+        Assertions.assertThat(entry.getFiles()).isEqualTo(files);
+        Assertions.assertThat(entry.getIssues()) //
+            .usingElementComparatorOnFields("file", "element", "attribute", "message", "changeSetId", "changeSetAuthor") //
+            .containsExactly(issue);
+    }
+
+    @Test
+    public void test_store_and_load_marker_state() throws Exception {
+        File cacheFile = new File(folder.getRoot(), "validation.cache");
+
+        ValidationCache cache = new ValidationCache(cacheFile, "salt");
+        cache.put("history.xml", new ValidationCache.Entry("key1", Collections.emptyList(), Collections.emptyList(), true));
+        cache.put("changelog.xml", new ValidationCache.Entry("key2", Collections.emptyList(), Collections.emptyList()));
+        cache.store();
+
+        ValidationCache loaded = new ValidationCache(cacheFile, "salt");
+        loaded.load();
+        Assertions.assertThat(loaded.get("history.xml").isBeforeMarker()).isTrue();
+        Assertions.assertThat(loaded.get("changelog.xml").isBeforeMarker()).isFalse();
+    }
+
+    @Test
+    public void test_entries_are_discarded_when_salt_changes() throws Exception {
+        File cacheFile = new File(folder.getRoot(), "validation.cache");
+
+        ValidationCache cache = new ValidationCache(cacheFile, "salt");
+        cache.put("changelog.xml", new ValidationCache.Entry("key", Collections.emptyList(), Collections.emptyList()));
+        cache.store();
+
+        ValidationCache loaded = new ValidationCache(cacheFile, "other salt");
+        loaded.load();
+        Assertions.assertThat(loaded.get("changelog.xml")).isNull();
+    }
+
+    @Test
+    public void test_key_depends_on_content_and_upstream() throws Exception {
+        File changelog = folder.newFile("changelog.xml");
+        List<String> files = Arrays.asList(changelog.getAbsolutePath());
+        ValidationCache cache = new ValidationCache(new File(folder.getRoot(), "validation.cache"), "salt");
+
+        String key = cache.newKey("", "changelog.xml", files);
+        Assertions.assertThat(cache.newKey("", "changelog.xml", files)).isEqualTo(key);
+        Assertions.assertThat(cache.newKey("upstream", "changelog.xml", files)).isNotEqualTo(key);
+
+        Files.write(changelog.toPath(), "<databaseChangeLog/>".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertThat(cache.newKey("", "changelog.xml", files)).isNotEqualTo(key);
+
+        Assertions.assertThat(changelog.delete()).isTrue();
+        Assertions.assertThat(cache.newKey("", "changelog.xml", files)).isNull();
+    }
+
+    @Test
+    public void test_retain_deletes_unreachable_snapshots() throws Exception {
+        ValidationCache cache = new ValidationCache(new File(folder.getRoot(), "validation.cache"), "salt");
+        cache.put("history.xml", new ValidationCache.Entry("key1", Collections.emptyList(), Collections.emptyList()));
+        cache.put("changelog.xml", new ValidationCache.Entry("key2", Collections.emptyList(), Collections.emptyList()));
+        File reachable = cache.getSnapshot("key1");
+        File stale = cache.getSnapshot("key2");
+        for (File snapshot : Arrays.asList(reachable, stale)) {
+            Files.createDirectories(snapshot.getParentFile().toPath());
+            Files.createFile(snapshot.toPath());
+        }
+
+        cache.retain(Arrays.asList("history.xml", "changelog.xml"), Collections.singleton("key1"));
+        Assertions.assertThat(reachable).exists();
+        Assertions.assertThat(stale).doesNotExist();
+        Assertions.assertThat(cache.get("changelog.xml")).isNotNull();
+    }
+
+}
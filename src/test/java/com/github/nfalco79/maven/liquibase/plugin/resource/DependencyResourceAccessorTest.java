@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin.resource;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.assertj.core.api.Assertions;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import liquibase.resource.Resource;
+
+public class DependencyResourceAccessorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void test_resource_of_last_artifact_wins() throws Exception {
+        File jar1 = buildJar("a1.jar", "com/acme/db.changelog.xml", "a1");
+        File jar2 = buildJar("a2.jar", "com/acme/db.changelog.xml", "a2");
+
+        try (DependencyResourceAccessor accessor = new DependencyResourceAccessor(Arrays.asList(jar1, jar2))) {
+            List<Resource> resources = accessor.getAll("com/acme/db.changelog.xml");
+
+            Assertions.assertThat(resources).hasSize(1);
+            try (InputStream is = resources.get(0).openInputStream()) {
+                Assertions.assertThat(IOUtils.toString(is, StandardCharsets.UTF_8)).isEqualTo("a2");
+            }
+        }
+    }
+
+    @Test
+    public void test_plugin_classpath_is_not_visible() throws Exception {
+        File jar = buildJar("a1.jar", "com/acme/db.changelog.xml", "a1");
+
+        try (DependencyResourceAccessor accessor = new DependencyResourceAccessor(Arrays.asList(jar))) {
+            Assertions.assertThat(accessor.getAll("liquibase/parser/core/xml/XMLChangeLogSAXParser.class")).isNullOrEmpty();
+        }
+    }
+
+    private File buildJar(String name, String entry, String content) throws Exception {
+        File file = folder.newFile(name);
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(file))) {
+            zos.putNextEntry(new ZipEntry(entry));
+            zos.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+}
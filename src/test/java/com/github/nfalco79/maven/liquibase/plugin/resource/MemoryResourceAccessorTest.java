@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin.resource;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import liquibase.resource.Resource;
+
+public class MemoryResourceAccessorTest {
+
+    @Test
+    public void test_last_put_script_wins() throws Exception {
+        MemoryResourceAccessor accessor = new MemoryResourceAccessor();
+        accessor.put("com/acme/db.changelog.xml", "a1".getBytes(StandardCharsets.UTF_8));
+        accessor.put("com\\acme\\db.changelog.xml", "a2".getBytes(StandardCharsets.UTF_8));
+
+        List<Resource> resources = accessor.getAll("/com/acme/./db.changelog.xml");
+
+        Assertions.assertThat(resources).hasSize(1);
+        Assertions.assertThat(resources.get(0).getPath()).isEqualTo("com/acme/db.changelog.xml");
+        try (InputStream is = resources.get(0).openInputStream()) {
+            Assertions.assertThat(IOUtils.toString(is, StandardCharsets.UTF_8)).isEqualTo("a2");
+        }
+        Assertions.assertThat(accessor.getAll("db.changelog.xml")).isEmpty();
+    }
+
+    @Test
+    public void test_resolve_sibling() throws Exception {
+        MemoryResourceAccessor accessor = new MemoryResourceAccessor();
+        accessor.put("com/acme/db.changelog.xml", new byte[0]);
+        accessor.put("com/acme/module/db.changelog.xml", new byte[0]);
+
+        Resource resource = accessor.get("com/acme/db.changelog.xml").resolveSibling("module/db.changelog.xml");
+
+        Assertions.assertThat(resource.exists()).isTrue();
+        Assertions.assertThat(resource.getPath()).isEqualTo("com/acme/module/db.changelog.xml");
+        Assertions.assertThat(resource.resolveSibling("missing.xml").exists()).isFalse();
+    }
+
+    @Test
+    public void test_search() throws Exception {
+        MemoryResourceAccessor accessor = new MemoryResourceAccessor();
+        accessor.put("com/acme/b.xml", new byte[0]);
+        accessor.put("com/acme/a.xml", new byte[0]);
+        accessor.put("com/acme/module/c.xml", new byte[0]);
+        accessor.put("org/acme/d.xml", new byte[0]);
+
+        Assertions.assertThat(accessor.search("com/acme", false)).extracting(Resource::getPath) //
+            .containsExactly("com/acme/a.xml", "com/acme/b.xml");
+        Assertions.assertThat(accessor.search("com/acme/", true)).extracting(Resource::getPath) //
+            .containsExactly("com/acme/a.xml", "com/acme/b.xml", "com/acme/module/c.xml");
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin.resource;
+
+import java.io.File;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import liquibase.resource.Resource;
+
+public class SourceResourceAccessorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void test_resource_path_is_relative_to_filesystem_root() throws Exception {
+        File source = folder.newFolder("source");
+        File changelog = new File(source, "db.changelog.xml");
+        Assertions.assertThat(changelog.createNewFile()).isTrue();
+
+        SourceResourceAccessor accessor = new SourceResourceAccessor(source);
+        List<Resource> resources = accessor.getAll(changelog.getAbsolutePath());
+
+        Assertions.assertThat(resources).hasSize(1);
+        Assertions.assertThat(new File(File.separator + resources.get(0).getPath())).isEqualTo(changelog.getAbsoluteFile());
+        Assertions.assertThat(accessor.getAll(resources.get(0).getPath())).hasSize(1);
+        // paths that are not under source are resolved relative to source
+        Assertions.assertThat(accessor.getAll("db.changelog.xml")).hasSize(1);
+    }
+
+    @Test
+    public void test_files_outside_source_are_not_accessible() throws Exception {
+        File source = folder.newFolder("source");
+        File outside = folder.newFile("db.changelog.xml");
+
+        SourceResourceAccessor accessor = new SourceResourceAccessor(source);
+        Assertions.assertThat(accessor.getAll(outside.getAbsolutePath())).isEmpty();
+        Assertions.assertThat(accessor.getAll("../db.changelog.xml")).isEmpty();
+    }
+
+    @Test
+    public void test_search() throws Exception {
+        File source = folder.newFolder("source");
+        File module = new File(source, "module");
+        Assertions.assertThat(new File(module, "sub").mkdirs()).isTrue();
+        Assertions.assertThat(new File(module, "b.xml").createNewFile()).isTrue();
+        Assertions.assertThat(new File(module, "a.xml").createNewFile()).isTrue();
+        Assertions.assertThat(new File(module, "sub/c.xml").createNewFile()).isTrue();
+
+        SourceResourceAccessor accessor = new SourceResourceAccessor(source);
+        Assertions.assertThat(accessor.search(module.getAbsolutePath(), false)) //
+            .extracting(r -> new File(r.getPath()).getName()) //
+            .containsExactly("a.xml", "b.xml");
+        Assertions.assertThat(accessor.search("module", true)).hasSize(3);
+        Assertions.assertThat(accessor.search("missing", true)).isEmpty();
+    }
+
+}
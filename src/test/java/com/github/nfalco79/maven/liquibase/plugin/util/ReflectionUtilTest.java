@@ -0,0 +1,71 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin.util;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+public class ReflectionUtilTest {
+
+    @SuppressWarnings("unused")
+    private static class Parent {
+        private String name;
+        private int size;
+
+        Parent(String name, int size) {
+            this.name = name;
+            this.size = size;
+        }
+    }
+
+    private static class Child extends Parent {
+        Child(String name, int size) {
+            super(name, size);
+        }
+    }
+
+    @Test
+    public void test_cached_accessor_reads_each_instance() {
+        Parent first = new Parent("first", 1);
+        Parent second = new Parent("second", 2);
+
+        Assertions.assertThat(ReflectionUtil.getFieldValue("name", first)).isEqualTo("first");
+        Assertions.assertThat(ReflectionUtil.getFieldValue("name", second)).isEqualTo("second");
+        Assertions.assertThat(ReflectionUtil.getFieldValue("size", first)).isEqualTo(1);
+        Assertions.assertThat(ReflectionUtil.getFieldValue("size", second)).isEqualTo(2);
+    }
+
+    @Test
+    public void test_missing_field() {
+        Parent parent = new Parent("parent", 1);
+
+        Assertions.assertThat(ReflectionUtil.hasField(Parent.class, "missing")).isFalse();
+        Assertions.assertThat(ReflectionUtil.getFieldValue("missing", parent)).isNull();
+        // the missing field is remembered
+        Assertions.assertThat(ReflectionUtil.getFieldValue("missing", parent)).isNull();
+        Assertions.assertThat(ReflectionUtil.getFieldValue("name", null)).isNull();
+    }
+
+    @Test
+    public void test_field_inherited_from_superclass() {
+        Child child = new Child("child", 3);
+
+        Assertions.assertThat(ReflectionUtil.hasField(Child.class, "name")).isTrue();
+        Assertions.assertThat(ReflectionUtil.getFieldValue("name", child)).isEqualTo("child");
+        Assertions.assertThat(ReflectionUtil.getFieldValue("size", child)).isEqualTo(3);
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin.validator;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import liquibase.change.core.CreateTableChange;
+import liquibase.change.core.ModifyDataTypeChange;
+
+public class ChangeAttributesTest {
+
+    @Test
+    public void test_attribute_table_is_shared_by_change_class() {
+        ChangeAttributes attributes = ChangeAttributes.of(new CreateTableChange());
+        Assertions.assertThat(ChangeAttributes.of(new CreateTableChange())).isSameAs(attributes);
+        Assertions.assertThat(ChangeAttributes.of(new ModifyDataTypeChange())).isNotSameAs(attributes);
+    }
+
+    @Test
+    public void test_retain_only_existing_attributes() {
+        ChangeAttributes attributes = ChangeAttributes.of(new ModifyDataTypeChange());
+        Assertions.assertThat(attributes.contains(ValidatorFactory.NEW_DATA_TYPE)).isTrue();
+        Assertions.assertThat(attributes.contains(ValidatorFactory.INDEX_NAME)).isFalse();
+        Assertions.assertThat(attributes.retain(ValidatorFactory.TABLE_NAME, ValidatorFactory.INDEX_NAME, ValidatorFactory.COLUMN_NAME)) //
+                .containsExactly(ValidatorFactory.TABLE_NAME, ValidatorFactory.COLUMN_NAME);
+    }
+
+    @Test
+    public void test_retain_is_computed_once() {
+        ChangeAttributes attributes = ChangeAttributes.of(new ModifyDataTypeChange());
+        String[] fields = { ValidatorFactory.TABLE_NAME, ValidatorFactory.INDEX_NAME };
+        Assertions.assertThat(attributes.retain(fields)).isSameAs(attributes.retain(fields.clone()));
+        Assertions.assertThat(attributes.retain(ValidatorFactory.INDEX_NAME)).isEmpty();
+    }
+}
@@ -20,11 +20,18 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.hamcrest.CoreMatchers;
 import org.junit.Assert;
@@ -33,6 +40,9 @@ import org.junit.Test;
 import com.github.nfalco79.maven.liquibase.plugin.validator.listener.ChangeStorage;
 
 import liquibase.change.Change;
+import liquibase.change.core.DropColumnChange;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
 
 public class CompositeValidatorTest {
 
@@ -76,4 +86,81 @@ public class CompositeValidatorTest {
         }
     }
 
+
+    @Test
+    public void test_prepare_keeps_validators_order() throws Exception {
+        Change change = mock(Change.class);
+        ChangeStorage storage = new ChangeStorage();
+
+        IChangeValidator validator1 = mock(IChangeValidator.class);
+        ValidationError violation1 = mock(ValidationError.class);
+        when(validator1.validate(change, storage)).thenReturn(Arrays.asList(violation1));
+
+        NotPermittedValidator validator2 = new NotPermittedValidator("tableName");
+
+        IChangeValidator validator3 = mock(IChangeValidator.class);
+        ValidationError violation3 = mock(ValidationError.class);
+        when(validator3.validate(change, storage)).thenReturn(Arrays.asList(violation3));
+
+        CompositeValidator composite = new CompositeValidator(Arrays.asList(validator1, validator2, validator3), new HashSet<String>(), storage);
+        Supplier<Collection<ValidationError>> task = composite.prepare(change);
+
+        // validators that are not stateless run immediately
+        verify(validator1).validate(change, storage);
+        verify(validator3).validate(change, storage);
+
+        Assert.assertThat(new ArrayList<>(task.get()), CoreMatchers.equalTo(Arrays.asList(violation1, violation3)));
+    }
+
+    @Test
+    public void test_shared_stateless_validators_under_parallel_pool() throws Exception {
+        ChangeStorage storage = new ChangeStorage();
+        List<IChangeValidator> validators = Arrays.asList(new LowerCaseValidator("tableName", "columnName"), //
+                new RangeLengthValidator(1, 8, "tableName"), //
+                new NotPermittedValidator("schemaName"));
+        CompositeValidator composite = new CompositeValidator(validators, new HashSet<String>(), storage);
+
+        ChangeSet changeSet = new ChangeSet(new DatabaseChangeLog());
+        List<Change> changes = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            DropColumnChange change = new DropColumnChange();
+            change.setChangeSet(changeSet);
+            change.setTableName(i % 3 == 0 ? "Table" + i : "t" + i);
+            change.setColumnName(i % 5 == 0 ? "COL" + i : "col" + i);
+            change.setSchemaName(i % 7 == 0 ? "schema" : null);
+            changes.add(change);
+        }
+
+        List<List<String>> expected = new ArrayList<>();
+        for (Change change : changes) {
+            expected.add(describe(composite.validate(change)));
+        }
+
+        List<List<String>> actual = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Collection<ValidationError>>> results = new ArrayList<>();
+            for (Change change : changes) {
+                results.add(pool.submit(composite.prepare(change)::get));
+            }
+            for (Future<Collection<ValidationError>> result : results) {
+                actual.add(describe(result.get()));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Assert.assertThat(actual, CoreMatchers.equalTo(expected));
+        Assert.assertTrue(expected.stream().anyMatch(issues -> issues.size() > 1));
+    }
+
+    /*
+     * The rule engine does not keep the order of attributes in a validator.
+     */
+    private List<String> describe(Collection<ValidationError> issues) {
+        return issues.stream() //
+                .map(issue -> issue.getAttribute() + ": " + issue.getMessage()) //
+                .sorted() //
+                .collect(Collectors.toList());
+    }
 }
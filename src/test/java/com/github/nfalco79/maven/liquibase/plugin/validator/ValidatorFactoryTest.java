@@ -20,6 +20,8 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.math.BigInteger;
 import java.util.Collection;
 import java.util.Collections;
@@ -36,6 +38,7 @@ import liquibase.change.AddColumnConfig;
 import liquibase.change.Change;
 import liquibase.change.ColumnConfig;
 import liquibase.change.core.AddColumnChange;
+import liquibase.change.core.CreateIndexChange;
 import liquibase.change.core.CreateSequenceChange;
 import liquibase.change.core.CreateTableChange;
 import liquibase.change.core.DropIndexChange;
@@ -122,4 +125,90 @@ public class ValidatorFactoryTest {
         Assert.assertTrue(factory.getStorage().containsKey(new ColumnKey("t1", "col1")));
         Assert.assertTrue(factory.getStorage().containsKey(new ColumnKey("t1", "col2")));
     }
+
+    @Test
+    public void test_validation_plan_is_shared_by_change_class() {
+        ValidatorFactory factory = new ValidatorFactory();
+        IChangeValidator plan1 = factory.newValidator(new DropIndexChange());
+        IChangeValidator plan2 = factory.newValidator(new DropIndexChange());
+        Assertions.assertThat(plan1).isSameAs(plan2);
+        Assertions.assertThat(factory.newValidator(new CreateSequenceChange())).isNotSameAs(plan1);
+    }
+
+    @Test
+    public void test_validation_plan_excludes_ignored_rules() {
+        ValidatorFactory factory = new ValidatorFactory();
+        IChangeValidator plan = factory.newValidator(new DropIndexChange());
+        Assertions.assertThat(((CompositeValidator) plan).getValidators()).hasAtLeastOneElementOfType(DuplicatedIndexValidator.class);
+
+        factory.setIgnoreRules(Collections.singleton("duplicatedIndex"));
+        IChangeValidator newPlan = factory.newValidator(new DropIndexChange());
+        Assertions.assertThat(newPlan).isNotSameAs(plan);
+        Assertions.assertThat(((CompositeValidator) newPlan).getValidators()).noneMatch(DuplicatedIndexValidator.class::isInstance);
+    }
+
+    @Test
+    public void test_snapshot_restores_storage_and_singleton_state() throws Exception {
+        ValidatorFactory factory = new ValidatorFactory();
+
+        CreateTableChange createTable = new CreateTableChange();
+        ColumnConfig col = new ColumnConfig();
+        col.setName("col1");
+        createTable.setTableName("t1");
+        createTable.addColumn(col);
+        factory.newValidator(createTable).validate(createTable);
+
+        CreateIndexChange createIndex = newIndex("ind_1", "t1", "col1");
+        factory.newValidator(createIndex).validate(createIndex);
+
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        factory.saveSnapshot(snapshot);
+
+        ValidatorFactory restoredFactory = new ValidatorFactory();
+        restoredFactory.restoreSnapshot(new ByteArrayInputStream(snapshot.toByteArray()));
+
+        Assertions.assertThat(restoredFactory.getStorage()).hasSameSizeAs(factory.getStorage());
+        Assert.assertTrue(restoredFactory.getStorage().containsKey(new ColumnKey("t1", "col1")));
+        Assertions.assertThat(restoredFactory.getStorage().getConstraint("t1", "ind_1")).isNotNull();
+
+        // the state of duplicatedIndex validator has been restored too
+        CreateIndexChange duplicatedIndex = newIndex("ind_2", "t1", "col1");
+        ValidatorUtil.getChangeSet().addChange(duplicatedIndex);
+        Collection<ValidationError> issues = restoredFactory.newValidator(duplicatedIndex).validate(duplicatedIndex);
+        Assertions.assertThat(issues).extracting(ValidationError::getMessage).contains("The index ind_2 is already defined by ind_1");
+    }
+
+    @Test
+    public void test_replay_updates_storage_and_stateful_validators() throws Exception {
+        ValidatorFactory factory = new ValidatorFactory();
+
+        CreateTableChange createTable = new CreateTableChange();
+        ColumnConfig col = new ColumnConfig();
+        col.setName("col1");
+        createTable.setTableName("t1");
+        createTable.addColumn(col);
+        ChangeSet changeSet = ValidatorUtil.getChangeSet();
+        changeSet.addChange(createTable);
+        changeSet.addChange(newIndex("ind_1", "t1", "col1"));
+
+        factory.replay(changeSet);
+
+        Assert.assertTrue(factory.getStorage().containsKey(new ColumnKey("t1", "col1")));
+        Assertions.assertThat(factory.getStorage().getConstraint("t1", "ind_1")).isNotNull();
+
+        CreateIndexChange duplicatedIndex = newIndex("ind_2", "t1", "col1");
+        ValidatorUtil.getChangeSet().addChange(duplicatedIndex);
+        Collection<ValidationError> issues = factory.newValidator(duplicatedIndex).validate(duplicatedIndex);
+        Assertions.assertThat(issues).extracting(ValidationError::getMessage).contains("The index ind_2 is already defined by ind_1");
+    }
+
+    private CreateIndexChange newIndex(String indexName, String tableName, String columnName) {
+        CreateIndexChange createIndex = new CreateIndexChange();
+        createIndex.setIndexName(indexName);
+        createIndex.setTableName(tableName);
+        AddColumnConfig indexColumn = new AddColumnConfig();
+        indexColumn.setName(columnName);
+        createIndex.addColumn(indexColumn);
+        return createIndex;
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin.validator;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import com.github.nfalco79.maven.liquibase.plugin.validator.Validator.Scope;
+
+import liquibase.change.Change;
+
+public class ValidatorMetadataTest {
+
+    @Validator(name = "mutable")
+    private static class MutableValidator implements IChangeValidator {
+        @SuppressWarnings("unused")
+        private int count;
+
+        @Override
+        public Collection<ValidationError> validate(Change change) {
+            return Collections.emptyList();
+        }
+    }
+
+    @Test
+    public void test_metadata_are_resolved_once() {
+        ValidatorMetadata metadata = ValidatorMetadata.of(FilePathValidator.class);
+        Assertions.assertThat(ValidatorMetadata.of(FilePathValidator.class)).isSameAs(metadata);
+        Assertions.assertThat(metadata.getName()).isEqualTo("filePath");
+        Assertions.assertThat(metadata.getScope()).isEqualTo(Scope.SINGLETON);
+        Assertions.assertThat(metadata.getConfigurableFields()).containsOnlyKeys("suffix");
+    }
+
+    @Test
+    public void test_ignored_rule() {
+        ValidatorMetadata metadata = ValidatorMetadata.of(CopyColumnValidator.class);
+        Assertions.assertThat(metadata.isIgnored(Collections.singleton("copyColumn"))).isTrue();
+        Assertions.assertThat(metadata.isIgnored(Collections.singleton("columns"))).isFalse();
+        Assertions.assertThat(metadata.isIgnored(null)).isFalse();
+    }
+
+    @Test
+    public void test_class_without_annotation() {
+        ValidatorMetadata metadata = ValidatorMetadata.of(String.class);
+        Assertions.assertThat(metadata.isAnnotated()).isFalse();
+        Assertions.assertThat(metadata.isIgnored(Collections.singleton("copyColumn"))).isFalse();
+    }
+
+    @Test
+    public void test_configure() throws Exception {
+        FilePathValidator validator = new FilePathValidator("artifactId");
+        ValidatorMetadata metadata = ValidatorMetadata.of(FilePathValidator.class);
+        metadata.configure(validator, Collections.singletonMap("filePath.suffix", "suff"));
+
+        Assertions.assertThat(metadata.getConfigurableFields().get("suffix").get(validator)).isEqualTo("suff");
+    }
+
+    @Test
+    public void test_stateless_validators() {
+        Assertions.assertThat(ValidatorMetadata.of(LowerCaseValidator.class).isStateless()).isTrue();
+        Assertions.assertThat(ValidatorMetadata.of(Oracle11gLengthValidator.class).isStateless()).isTrue();
+        // uses the information collected in storage
+        Assertions.assertThat(ValidatorMetadata.of(TableSizeValidator.class).isStateless()).isFalse();
+        // keeps state between changes
+        Assertions.assertThat(ValidatorMetadata.of(DuplicatedIndexValidator.class).isStateless()).isFalse();
+        // instances shared between threads must not have mutable fields
+        Assertions.assertThat(ValidatorMetadata.of(MutableValidator.class).isStateless()).isFalse();
+    }
+}
@@ -153,6 +153,31 @@ public class ColumnListenerTest {
                         new ColumnKey(renameChange.getNewTableName(), c2.getName()));
     }
 
+    @Test
+    public void verify_RenameTable_moves_columns_in_schema_model() throws Exception {
+        ColumnConfig c1 = newColumn("tenant_id", "INT8", false);
+        ColumnConfig c2 = newColumn("t_key", "BYTEA", false);
+
+        CreateTableChange change = new CreateTableChange();
+        change.setTableName("comfin_configuration");
+        change.addColumn(c1);
+        change.addColumn(c2);
+
+        RenameTableChange renameChange = new RenameTableChange();
+        renameChange.setOldTableName("comfin_configuration");
+        renameChange.setNewTableName("test");
+
+        ListenerValidatorFactory validatorFactory = new ListenerValidatorFactory();
+        validatorFactory.newValidator(change);
+        validatorFactory.newValidator(renameChange);
+
+        ChangeStorage storage = validatorFactory.getStorage();
+        Assertions.assertThat(storage.getColumns("comfin_configuration")).isEmpty();
+        Assertions.assertThat(storage.getColumns("test")).extracting(ColumnInfo::getName).containsExactly("tenant_id", "t_key");
+        Assertions.assertThat(storage.getColumn("test", "t_key")).isNotNull() //
+                .extracting(ColumnInfo::getTable).isEqualTo("test");
+    }
+
     @Test
     public void verify_RenameColumn_update_storage() throws Exception {
         ColumnConfig c1 = newColumn("tenant_id", "INT8", false);
@@ -177,6 +202,69 @@ public class ColumnListenerTest {
                         new ColumnKey(change.getTableName(), renameChange.getNewColumnName()));
     }
 
+    @Test
+    public void verify_renamed_columns_are_rekeyed() throws Exception {
+        ColumnConfig c1 = newColumn("tenant_id", "INT8", false);
+        ColumnConfig c2 = newColumn("t_key", "BYTEA", false);
+
+        CreateTableChange change = new CreateTableChange();
+        change.setTableName("comfin_configuration");
+        change.addColumn(c1);
+        change.addColumn(c2);
+
+        RenameColumnChange renameColumn = new RenameColumnChange();
+        renameColumn.setTableName("comfin_configuration");
+        renameColumn.setOldColumnName("t_key");
+        renameColumn.setNewColumnName("key");
+
+        RenameTableChange renameTable = new RenameTableChange();
+        renameTable.setOldTableName("comfin_configuration");
+        renameTable.setNewTableName("test");
+
+        DropColumnChange dropChange = new DropColumnChange();
+        dropChange.setTableName("test");
+        dropChange.addColumn(newColumn("key", "BYTEA", false));
+
+        ListenerValidatorFactory validatorFactory = new ListenerValidatorFactory();
+        validatorFactory.newValidator(change);
+        validatorFactory.newValidator(renameColumn);
+        validatorFactory.newValidator(renameTable);
+
+        ChangeStorage storage = validatorFactory.getStorage();
+        Assertions.assertThat(storage.get(new ColumnKey("test", "key"))).isNotNull();
+        Assertions.assertThat(storage.get(new ColumnKey("comfin_configuration", "t_key"))).isNull();
+
+        validatorFactory.newValidator(dropChange);
+        Assertions.assertThat(storage).hasSize(1) //
+                .containsOnlyKeys(new ColumnKey("test", c1.getName()));
+    }
+
+    @Test
+    public void verify_renamed_column_replaces_column_with_same_name() throws Exception {
+        ColumnConfig c1 = newColumn("tenant_id", "INT8", false);
+        ColumnConfig c2 = newColumn("t_key", "BYTEA", false);
+
+        CreateTableChange change = new CreateTableChange();
+        change.setTableName("test");
+        change.addColumn(c1);
+        change.addColumn(c2);
+
+        RenameColumnChange renameColumn = new RenameColumnChange();
+        renameColumn.setTableName("test");
+        renameColumn.setOldColumnName("t_key");
+        renameColumn.setNewColumnName("tenant_id");
+
+        ListenerValidatorFactory validatorFactory = new ListenerValidatorFactory();
+        validatorFactory.newValidator(change);
+        validatorFactory.newValidator(renameColumn);
+
+        ChangeStorage storage = validatorFactory.getStorage();
+        Assertions.assertThat(storage).hasSize(1) //
+                .containsOnlyKeys(new ColumnKey("test", c1.getName()));
+        Assertions.assertThat(storage.getColumns("test")).hasSize(1) //
+                .allMatch(column -> "BYTEA".equals(column.getType()));
+    }
+
     @Test
     public void verify_AddNotNullConstraint_update_storage() throws Exception {
         ColumnConfig c1 = newColumn("tenant_id", "INT8", true);
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2022 Nikolas Falco
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.github.nfalco79.maven.liquibase.plugin.validator.listener;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import com.github.nfalco79.maven.liquibase.plugin.validator.ValidatorFactory;
+
+import liquibase.change.AddColumnConfig;
+import liquibase.change.ColumnConfig;
+import liquibase.change.core.AddColumnChange;
+import liquibase.change.core.CreateTableChange;
+import liquibase.change.core.DropColumnChange;
+import liquibase.change.core.ModifyDataTypeChange;
+import liquibase.change.core.RenameColumnChange;
+import liquibase.change.core.RenameTableChange;
+
+public class ColumnSizeListenerTest {
+
+    /*
+     * Internal class to expose change storage.
+     */
+    private class ListenerValidatorFactory extends ValidatorFactory {
+        @Override
+        public ChangeStorage getStorage() {
+            return super.getStorage();
+        }
+    }
+
+    private AddColumnConfig newColumn(String name, String type) {
+        AddColumnConfig cc = new AddColumnConfig();
+        cc.setName(name);
+        cc.setType(type);
+        return cc;
+    }
+
+    @Test
+    public void verify_table_row_size_is_updated_by_difference() throws Exception {
+        CreateTableChange createTable = new CreateTableChange();
+        createTable.setTableName("t1");
+        createTable.addColumn(newColumn("id", "INTEGER"));
+        createTable.addColumn(newColumn("code", "VARCHAR(10)"));
+
+        ListenerValidatorFactory validatorFactory = new ListenerValidatorFactory();
+        ChangeStorage storage = validatorFactory.getStorage();
+
+        validatorFactory.newValidator(createTable);
+        Assertions.assertThat(storage.getRowSize("t1")).isEqualTo(6 + 15);
+        Assertions.assertThat(storage.getColumn("t1", "code").getKeySize()).isEqualTo(13);
+
+        AddColumnChange addColumn = new AddColumnChange();
+        addColumn.setTableName("t1");
+        addColumn.addColumn(newColumn("amount", "BIGINT"));
+        validatorFactory.newValidator(addColumn);
+        Assertions.assertThat(storage.getRowSize("t1")).isEqualTo(6 + 15 + 10);
+
+        ModifyDataTypeChange modifyType = new ModifyDataTypeChange();
+        modifyType.setTableName("t1");
+        modifyType.setColumnName("code");
+        modifyType.setNewDataType("VARCHAR(20)");
+        validatorFactory.newValidator(modifyType);
+        Assertions.assertThat(storage.getRowSize("t1")).isEqualTo(6 + 25 + 10);
+
+        ColumnConfig dropped = new ColumnConfig();
+        dropped.setName("id");
+        DropColumnChange dropColumn = new DropColumnChange();
+        dropColumn.setTableName("t1");
+        dropColumn.addColumn(dropped);
+        validatorFactory.newValidator(dropColumn);
+        Assertions.assertThat(storage.getRowSize("t1")).isEqualTo(25 + 10);
+
+        RenameTableChange renameTable = new RenameTableChange();
+        renameTable.setOldTableName("t1");
+        renameTable.setNewTableName("t2");
+        validatorFactory.newValidator(renameTable);
+        Assertions.assertThat(storage.getRowSize("t1")).isZero();
+        Assertions.assertThat(storage.getRowSize("t2")).isEqualTo(25 + 10);
+    }
+
+    @Test
+    public void verify_table_key_size_is_updated_when_key_column_is_resized() throws Exception {
+        CreateTableChange createTable = new CreateTableChange();
+        createTable.setTableName("t1");
+        createTable.addColumn(newColumn("id", "INTEGER"));
+        createTable.addColumn(newColumn("code", "VARCHAR(10)"));
+
+        ListenerValidatorFactory validatorFactory = new ListenerValidatorFactory();
+        ChangeStorage storage = validatorFactory.getStorage();
+
+        validatorFactory.newValidator(createTable);
+        Assertions.assertThat(storage.getKeySize("t1")).isEqualTo(6 + 13);
+
+        ModifyDataTypeChange modifyType = new ModifyDataTypeChange();
+        modifyType.setTableName("t1");
+        modifyType.setColumnName("code");
+        modifyType.setNewDataType("VARCHAR(20)");
+        validatorFactory.newValidator(modifyType);
+        Assertions.assertThat(storage.getColumn("t1", "code").getKeySize()).isEqualTo(23);
+        Assertions.assertThat(storage.getKeySize("t1")).isEqualTo(6 + 23);
+
+        RenameColumnChange renameColumn = new RenameColumnChange();
+        renameColumn.setTableName("t1");
+        renameColumn.setOldColumnName("code");
+        renameColumn.setNewColumnName("label");
+        validatorFactory.newValidator(renameColumn);
+        Assertions.assertThat(storage.getKeySize("t1")).isEqualTo(6 + 23);
+        Assertions.assertThat(storage.getRowSize("t1")).isEqualTo(6 + 25);
+
+        modifyType = new ModifyDataTypeChange();
+        modifyType.setTableName("t1");
+        modifyType.setColumnName("label");
+        modifyType.setNewDataType("CHAR(5)");
+        validatorFactory.newValidator(modifyType);
+        Assertions.assertThat(storage.getKeySize("t1")).isEqualTo(6 + 7);
+        Assertions.assertThat(storage.getRowSize("t1")).isEqualTo(6 + 7);
+    }
+}
@@ -39,6 +39,7 @@ import liquibase.change.core.DropForeignKeyConstraintChange;
 import liquibase.change.core.DropIndexChange;
 import liquibase.change.core.DropPrimaryKeyChange;
 import liquibase.change.core.DropUniqueConstraintChange;
+import liquibase.change.core.RenameColumnChange;
 
 public class ConstraintListenerTest {
 
@@ -384,4 +385,71 @@ public class ConstraintListenerTest {
                 .allMatch(col -> (col.getConstraints().isEmpty()))) //
                 .isTrue();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void verify_renamed_column_releases_constraints_of_replaced_column() throws Exception {
+        ColumnConfig c1 = newColumn("tenant_id", "INT8", false);
+        ColumnConfig c2 = new AddColumnConfig();
+        c2.setName("col2");
+        c2.setType("VARCHAR");
+        ConstraintsConfig constraint = new ConstraintsConfig();
+        constraint.setPrimaryKey(true);
+        constraint.setPrimaryKeyName("prim_key_t1");
+        c2.setConstraints(constraint);
+
+        CreateTableChange change = new CreateTableChange();
+        change.setTableName("t1");
+        change.addColumn(c1);
+        change.addColumn(c2);
+
+        RenameColumnChange renameColumn = new RenameColumnChange();
+        renameColumn.setTableName("t1");
+        renameColumn.setOldColumnName("tenant_id");
+        renameColumn.setNewColumnName("col2");
+
+        ListenerValidatorFactory validatorFactory = new ListenerValidatorFactory();
+        validatorFactory.newValidator(change);
+        validatorFactory.newValidator(renameColumn);
+
+        ChangeStorage storage = validatorFactory.getStorage();
+        Assertions.assertThat(storage.getConstraint("t1", "prim_key_t1")).isNull();
+        Assertions.assertThat(storage.getConstraints("t1", ConstraintType.PRIMARY_KEY)).isEmpty();
+        Assertions.assertThat(storage.getConstraints("t1", "col2")).isEmpty();
+    }
+
+    @Test
+    public void verify_multi_column_constraint_is_shared_by_columns() throws Exception {
+        AddColumnConfig c1 = newColumn("tenant_id", "INTEGER", false);
+        AddColumnConfig c2 = newColumn("code", "VARCHAR(10)", false);
+
+        CreateTableChange createTable = new CreateTableChange();
+        createTable.setTableName("t1");
+        createTable.addColumn(c1);
+        createTable.addColumn(c2);
+
+        AddUniqueConstraintChange addUnique = new AddUniqueConstraintChange();
+        addUnique.setTableName("t1");
+        addUnique.setColumnNames(c1.getName() + ", " + c2.getName());
+        addUnique.setConstraintName("uk_t1");
+
+        ListenerValidatorFactory validatorFactory = new ListenerValidatorFactory();
+        validatorFactory.newValidator(createTable);
+        validatorFactory.newValidator(addUnique);
+
+        ChangeStorage storage = validatorFactory.getStorage();
+        ConstraintInfo constraint = storage.getConstraint("t1", "uk_t1");
+        Assertions.assertThat(constraint).isNotNull();
+        Assertions.assertThat(constraint.getColumns()).extracting(ColumnInfo::getName).containsExactly("tenant_id", "code");
+        Assertions.assertThat(storage.getConstraints("t1", ConstraintType.INDEX)).containsOnly(constraint);
+        Assertions.assertThat(storage.getConstraints("t1", "code")).containsOnly(constraint);
+
+        DropUniqueConstraintChange dropUnique = new DropUniqueConstraintChange();
+        dropUnique.setTableName("t1");
+        dropUnique.setConstraintName("uk_t1");
+        validatorFactory.newValidator(dropUnique);
+
+        Assertions.assertThat(storage.getConstraint("t1", "uk_t1")).isNull();
+        Assertions.assertThat(storage.getConstraints("t1", ConstraintType.INDEX)).isEmpty();
+        Assertions.assertThat(storage.getColumns("t1")).allMatch(col -> col.getConstraints().isEmpty());
+    }
+}